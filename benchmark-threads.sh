@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Coffee Shop Threading Benchmark
+# Compara hilos de plataforma (Tomcat, 200 hilos) con hilos virtuales (perfil virtual-threads)
+# a 200/1000/5000 clientes concurrentes. Requiere Java 21 y las variables SPRING_DATASOURCE_* de la base a usar.
+#
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/coffee_shop_db \
+#   SPRING_DATASOURCE_USERNAME=coffee_user SPRING_DATASOURCE_PASSWORD=coffee_pass ./benchmark-threads.sh
+
+set -e
+
+PORT=${PORT:-8090}
+CLIENTS=${CLIENTS:-200,1000,5000}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-30s}
+# Mismo pool de conexiones en ambos modos: la diferencia medida es solo el modelo de hilos
+POOL_SIZE=${POOL_SIZE:-20}
+RESULTS=${RESULTS:-target/threading-benchmark.csv}
+# Argumentos extra para la aplicación en ambos modos (ej. --spring.jpa.properties.hibernate.dialect=...)
+APP_ARGS=${APP_ARGS:-}
+
+echo "🔨 Building Coffee Shop application..."
+./mvnw -q -B clean package -DskipTests
+./mvnw -q -B -Ploadtest test-compile
+rm -f "$RESULTS"
+
+for MODE in platform virtual; do
+    PROFILE=""
+    [ "$MODE" = "virtual" ] && PROFILE="virtual-threads"
+
+    echo "🚀 Starting application ($MODE threads)..."
+    # El limitador queda apagado: con él activo se mediría su rechazo (503) y no el modelo de hilos
+    SPRING_PROFILES_ACTIVE=$PROFILE java -jar target/coffee_shop-0.0.1-SNAPSHOT.jar \
+        --server.port="$PORT" \
+        --spring.jpa.show-sql=false \
+        --coffee.limiter.enabled=false \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --server.tomcat.max-connections=10000 \
+        --server.tomcat.accept-count=1000 \
+        $APP_ARGS > "target/benchmark-$MODE.log" 2>&1 &
+    APP_PID=$!
+    trap 'kill $APP_PID 2>/dev/null' EXIT
+
+    for i in $(seq 1 60); do
+        curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+        sleep 1
+    done
+    if ! curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; then
+        echo "❌ Application did not start, see target/benchmark-$MODE.log"
+        exit 1
+    fi
+
+    echo "⏱️  Running benchmark ($MODE threads, clients $CLIENTS)..."
+    ./mvnw -q -B -Ploadtest exec:java -Dexec.args="--url http://localhost:$PORT --clients $CLIENTS \
+        --warmup $WARMUP --duration $DURATION --label $MODE --csv $RESULTS"
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+done
+
+echo "✅ Results in $RESULTS"
+cat "$RESULTS"
@@ -1,114 +1,63 @@
 #!/bin/bash
 
-# Coffee Shop Metrics Test Script
-# This script generates test data to populate the Grafana dashboards
-
-echo "🧪 Generating test metrics for Coffee Shop..."
-
-# Base URL
-BASE_URL="http://localhost:8080"
-
-# Function to make API calls
-make_request() {
-    local method=$1
-    local endpoint=$2
-    local data=$3
-    
-    if [ "$method" = "POST" ]; then
-        curl -s -X POST "$BASE_URL$endpoint" \
-             -H "Content-Type: application/json" \
-             -d "$data" > /dev/null
-    else
-        curl -s -X "$method" "$BASE_URL$endpoint" > /dev/null
-    fi
-}
-
-# Function to create test orders
-create_test_orders() {
-    echo "📝 Creating test orders..."
-    
-    # Create multiple orders
-    for i in {1..10}; do
-        make_request "POST" "/api/orders" "{
-            \"customerName\": \"Customer $i\",
-            \"drink\": \"latte\",
-            \"quantity\": $((RANDOM % 3 + 1))
-        }"
-        sleep 0.5
-    done
-    
-    echo "✅ Created 10 test orders"
-}
-
-# Function to update order statuses
-update_order_statuses() {
-    echo "🔄 Updating order statuses..."
-    
-    # Get all orders and update their statuses
-    for i in {1..5}; do
-        # Update to IN_PROGRESS
-        make_request "PATCH" "/api/orders/$i/status/IN_PROGRESS" ""
-        sleep 0.2
-        
-        # Update to READY
-        make_request "PATCH" "/api/orders/$i/status/READY" ""
-        sleep 0.2
-        
-        # Update to DELIVERED
-        make_request "PATCH" "/api/orders/$i/status/DELIVERED" ""
-        sleep 0.2
+# Coffee Shop Load Generator
+# Carga de lazo abierto (tasa de llegada constante) con la mezcla de una cafetería: navegar el catálogo, buscar,
+# crear pedidos y llevarlos hasta DELIVERED. Reporta throughput y percentiles de latencia (HdrHistogram, corregidos
+# por omisión coordinada) por endpoint. Usa la aplicación que esté corriendo en el puerto PORT; si no hay ninguna,
+# levanta una con H2 en memoria y la detiene al terminar.
+#
+#   RATE=20,50,100 DURATION=60s ./generate-test-metrics.sh
+
+set -e
+
+PORT=${PORT:-8080}
+BASE_URL="http://localhost:$PORT"
+# Peticiones por segundo; con varias tasas separadas por coma se mide cada una por separado
+RATE=${RATE:-20}
+WARMUP=${WARMUP:-10s}
+DURATION=${DURATION:-60s}
+MIX=${MIX:-catalog=40,search=12,order=12,status=36}
+RESULTS=${RESULTS:-target/load-generator.csv}
+# Argumentos extra para la aplicación con H2 (ej. --coffee.limiter.enabled=false)
+APP_ARGS=${APP_ARGS:-}
+
+echo "🧪 Generating load for Coffee Shop..."
+
+if ! curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+    echo "🔨 No application on port $PORT, building and starting one with H2..."
+    ./mvnw -q -B clean package -DskipTests
+    java -jar target/coffee_shop-0.0.1-SNAPSHOT.jar \
+        --server.port="$PORT" \
+        --spring.datasource.url="jdbc:h2:mem:coffee;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1" \
+        --spring.datasource.username=sa \
+        --spring.datasource.password= \
+        --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect \
+        --spring.jpa.show-sql=false \
+        $APP_ARGS > target/load-generator-app.log 2>&1 &
+    APP_PID=$!
+    trap 'kill $APP_PID 2>/dev/null' EXIT
+
+    for i in $(seq 1 60); do
+        curl -sf "$BASE_URL/actuator/health" > /dev/null && break
+        sleep 1
     done
-    
-    echo "✅ Updated order statuses"
-}
-
-# Function to generate API load
-generate_api_load() {
-    echo "🚀 Generating API load..."
-    
-    for i in {1..20}; do
-        # Get all orders
-        make_request "GET" "/api/orders" ""
-        
-        # Get individual orders
-        make_request "GET" "/api/orders/1" ""
-        make_request "GET" "/api/orders/2" ""
-        
-        # Health check
-        make_request "GET" "/actuator/health" ""
-        
-        sleep 0.1
-    done
-    
-    echo "✅ Generated API load"
-}
-
-# Main execution
-echo "🎯 Starting metrics generation..."
-
-# Check if the API is running
-if ! curl -s "$BASE_URL/actuator/health" > /dev/null; then
-    echo "❌ Coffee Shop API is not running. Please start it first with:"
-    echo "   ./start-local.sh"
-    exit 1
+    if ! curl -sf "$BASE_URL/actuator/health" > /dev/null; then
+        echo "❌ Application did not start, see target/load-generator-app.log"
+        exit 1
+    fi
 fi
 
-# Generate test data
-create_test_orders
-update_order_statuses
-generate_api_load
+echo "🚀 Running open-loop load (rate $RATE req/s, warmup $WARMUP, duration $DURATION)..."
+mkdir -p "$(dirname "$RESULTS")"
+./mvnw -q -B -Ploadtest test-compile
+./mvnw -q -B -Ploadtest exec:java -Dexec.mainClass=com.devops.coffee_shop.loadtest.LoadGenerator \
+    -Dexec.args="--url $BASE_URL --rate $RATE --warmup $WARMUP --duration $DURATION --mix $MIX --csv $RESULTS"
 
 echo ""
-echo "🎉 Test data generation completed!"
+echo "🎉 Load generation completed! Results in $RESULTS"
 echo ""
 echo "📊 You can now view the metrics in Grafana:"
 echo "   http://localhost:3000 (admin/admin123)"
 echo ""
 echo "🔍 Check Prometheus for raw metrics:"
 echo "   http://localhost:9090"
-echo ""
-echo "📈 The dashboard should now show:"
-echo "   - Requests Per Second (RPS)"
-echo "   - Average Response Time"
-echo "   - Coffee Orders Created/Delivered"
-echo "   - JVM Memory Usage"
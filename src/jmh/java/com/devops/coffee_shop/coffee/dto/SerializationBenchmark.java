@@ -0,0 +1,111 @@
+package com.devops.coffee_shop.coffee.dto;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialización de listas de DTOs en JSON, CBOR y Smile (los formatos de MessageConvertersConfig), con el
+ * ObjectMapper configurado como el de Spring Boot (fechas ISO-8601 en lugar de timestamps).
+ * Los tamaños de cada lista, con y sin gzip, se imprimen al iniciar cada combinación de parámetros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private List<ProductDto> products;
+    private List<ClientDto> clients;
+    private List<OrderDto> orders;
+
+    @Setup
+    public void createDtos() throws IOException {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(size);
+        clients = new ArrayList<>(size);
+        orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new ProductDto((long) i, "Producto " + i, "Descripción del producto " + i,
+                    new BigDecimal("3.50"), ProductCategory.COFFEE, true, now, now));
+            clients.add(new ClientDto((long) i, "Nombre" + i, "Apellido" + i, new Date(), true, now, now));
+            orders.add(new OrderDto((long) i, "Cliente " + i, "latte", 1 + i % 3, OrderStatus.NEW, now));
+        }
+        System.out.printf("%n%s x %d: products %s, clients %s, orders %s (bytes/gzip)%n", format, size,
+                sizes(products), sizes(clients), sizes(orders));
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("Formato desconocido: " + format);
+        };
+    }
+
+    private String sizes(List<?> list) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(list);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return bytes.length + "/" + compressed.size();
+    }
+
+    @Benchmark
+    public byte[] products() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] clients() throws JsonProcessingException {
+        return writer.writeValueAsBytes(clients);
+    }
+
+    @Benchmark
+    public byte[] orders() throws JsonProcessingException {
+        return writer.writeValueAsBytes(orders);
+    }
+}
@@ -0,0 +1,95 @@
+package com.devops.coffee_shop.coffee.service;
+
+import com.devops.coffee_shop.coffee.domain.Client;
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.domain.Product;
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * convertToDto de los tres servicios sobre una lista de entidades, como al responder un listado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100"})
+    private int size;
+
+    private List<Order> orders;
+    private List<Product> products;
+    private List<Client> clients;
+
+    @Setup
+    public void createEntities() {
+        orders = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        clients = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Order order = new Order("Cliente " + i, "latte", 1 + i % 3);
+            order.setId((long) i);
+            order.setStatus(OrderStatus.NEW);
+            orders.add(order);
+
+            Product product = new Product("Producto " + i, "Descripción del producto " + i,
+                    new BigDecimal("3.50"), ProductCategory.COFFEE);
+            product.setId((long) i);
+            products.add(product);
+
+            Client client = new Client("Nombre" + i, "Apellido" + i, new Date(), String.valueOf(10_000_000 + i));
+            client.setId((long) i);
+            clients.add(client);
+        }
+    }
+
+    @Benchmark
+    public List<OrderDto> orderToDto() {
+        List<OrderDto> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add(OrderService.convertToDto(order));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ProductDto> productToDto() {
+        List<ProductDto> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(ProductService.convertToDto(product));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ClientDto> clientToDto() {
+        List<ClientDto> dtos = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            dtos.add(ClientService.convertToDto(client));
+        }
+        return dtos;
+    }
+}
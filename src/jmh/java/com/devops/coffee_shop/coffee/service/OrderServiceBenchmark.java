@@ -0,0 +1,92 @@
+package com.devops.coffee_shop.coffee.service;
+
+import com.devops.coffee_shop.CoffeeShopApplication;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService con el contexto completo de Spring (Flyway, Hibernate, caché, métricas) sobre H2 en memoria.
+ * Cada benchmark corre en su propia JVM con una base nueva de existingOrders pedidos; createOrder la hace crecer
+ * durante la medición, getAllOrders la lee tal cual.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class OrderServiceBenchmark {
+
+    @Param({"1000"})
+    private int existingOrders;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderDto newOrder;
+
+    @Setup
+    public void startApplication() {
+        // Argumentos de línea de comandos: tienen prioridad sobre config/application.properties de los tests
+        context = new SpringApplicationBuilder(CoffeeShopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        orderService = context.getBean(OrderService.class);
+
+        List<OrderDto> batch = new ArrayList<>();
+        for (int i = 0; i < existingOrders; i++) {
+            batch.add(order("Cliente " + i));
+            if (batch.size() == 500 || i == existingOrders - 1) {
+                orderService.createOrders(batch);
+                batch.clear();
+            }
+        }
+        newOrder = order("Ana");
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto createOrder() {
+        return orderService.createOrder(newOrder);
+    }
+
+    @Benchmark
+    public List<OrderDto> getAllOrders() {
+        return orderService.getAllOrders();
+    }
+
+    private static OrderDto order(String customerName) {
+        OrderDto dto = new OrderDto();
+        dto.setCustomerName(customerName);
+        dto.setDrink("latte");
+        dto.setQuantity(1);
+        return dto;
+    }
+}
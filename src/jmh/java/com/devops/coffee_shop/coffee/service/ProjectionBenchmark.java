@@ -0,0 +1,122 @@
+package com.devops.coffee_shop.coffee.service;
+
+import com.devops.coffee_shop.CoffeeShopApplication;
+import com.devops.coffee_shop.coffee.domain.Client;
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.domain.Product;
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import com.devops.coffee_shop.coffee.repository.ClientRepository;
+import com.devops.coffee_shop.coffee.repository.OrderRepository;
+import com.devops.coffee_shop.coffee.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listados leídos como entidades administradas + convertToDto contra las consultas con proyección
+ * (SELECT new ...) de los repositories, sobre H2 en memoria. Cada llamada al repository abre su propia
+ * transacción, así que el contexto de persistencia se descarta entre llamadas como entre peticiones.
+ * La memoria reservada por llamada se ve con el profiler de GC (gc.alloc.rate.norm):
+ * -Djmh.args="ProjectionBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ProjectionBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private ProductRepository productRepository;
+    private ClientRepository clientRepository;
+
+    @Setup
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CoffeeShopApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        orderRepository = context.getBean(OrderRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        clientRepository = context.getBean(ClientRepository.class);
+
+        List<Order> orders = new ArrayList<>(rows);
+        List<Product> products = new ArrayList<>(rows);
+        List<Client> clients = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            orders.add(new Order("Cliente " + i, "latte", 1 + i % 3));
+            products.add(new Product("Producto " + i, "Descripción del producto " + i,
+                    new BigDecimal("3.50"), ProductCategory.COFFEE));
+            clients.add(new Client("Nombre" + i, "Apellido" + i, new Date(), String.valueOf(10_000_000 + i)));
+        }
+        orderRepository.saveAll(orders);
+        productRepository.saveAll(products);
+        clientRepository.saveAll(clients);
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderDto> orderEntities() {
+        return orderRepository.findAll().stream().map(OrderService::convertToDto).toList();
+    }
+
+    @Benchmark
+    public List<OrderDto> orderProjection() {
+        return orderRepository.findAllDtos();
+    }
+
+    @Benchmark
+    public List<ProductDto> productEntities() {
+        return productRepository.findAll().stream().map(ProductService::convertToDto).toList();
+    }
+
+    @Benchmark
+    public List<ProductDto> productProjection() {
+        return productRepository.findAllDtos();
+    }
+
+    @Benchmark
+    public List<ClientDto> clientEntities() {
+        return clientRepository.findAll().stream().map(ClientService::convertToDto).toList();
+    }
+
+    @Benchmark
+    public List<ClientDto> clientProjection() {
+        return clientRepository.findAllDtos();
+    }
+}
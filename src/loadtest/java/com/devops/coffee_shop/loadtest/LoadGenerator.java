@@ -0,0 +1,487 @@
+package com.devops.coffee_shop.loadtest;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Generador de carga de lazo abierto: las peticiones salen a tasa constante según un calendario fijo, sin esperar
+ * a que respondan las anteriores, como llegan los clientes reales. La latencia se mide desde el instante en que
+ * la petición debía salir (corrección de omisión coordinada): si el servidor o el propio generador se atrasan,
+ * la espera cuenta. También se reporta el tiempo de servicio (desde el envío real) para comparar.
+ * Las llegadas que no se envían por --max-in-flight entran en el histograma de su endpoint con la latencia del
+ * timeout de petición, como si hubieran fallado por timeout: no desaparecen de los percentiles.
+ * <p>
+ * Mezcla de una cafetería (pesos con --mix): catalog (listado, disponibles y por categoría), search (búsqueda por
+ * nombre), order (alta de pedido) y status (avanza un pedido abierto un paso hacia DELIVERED; sin pedidos abiertos
+ * se crea uno). Cada llegada es una petición independiente, así el recorrido de estados no cierra el lazo.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.mainClass=com.devops.coffee_shop.loadtest.LoadGenerator \
+ *     -Dexec.args="--url http://localhost:8080 --rate 20,50,100 --duration 60s"
+ * </pre>
+ */
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    // Camino feliz de un pedido; CANCELED no se usa
+    private static final OrderStatus[] WALK = {OrderStatus.NEW, OrderStatus.IN_PROGRESS, OrderStatus.READY, OrderStatus.DELIVERED};
+
+    private static final String[][] MENU = {
+            {"Latte", "COFFEE"}, {"Cappuccino", "COFFEE"}, {"Espresso", "COFFEE"}, {"Americano", "COFFEE"},
+            {"Mocha", "COFFEE"}, {"Flat White", "COFFEE"}, {"Cortado", "COFFEE"}, {"Macchiato", "COFFEE"},
+            {"Té Verde", "TEA"}, {"Chai Latte", "TEA"}, {"Té Negro", "TEA"}, {"Croissant", "PASTRY"},
+            {"Medialuna", "PASTRY"}, {"Muffin de Arándanos", "PASTRY"}, {"Sándwich de Jamón y Queso", "SANDWICH"},
+            {"Tostado", "SANDWICH"}, {"Limonada", "BEVERAGE"}, {"Jugo de Naranja", "BEVERAGE"},
+            {"Cheesecake", "DESSERT"}, {"Brownie", "DESSERT"}};
+    private static final String[] SEARCHES = {"lat", "cap", "esp", "moc", "te", "chai", "cro", "muf", "sand", "brow"};
+    private static final String[] CATEGORIES = {"COFFEE", "TEA", "PASTRY", "SANDWICH", "BEVERAGE", "DESSERT"};
+    private static final String[] DRINKS = {"latte", "cappuccino", "espresso", "americano", "mocha", "flat white"};
+
+    private static final String PRODUCTS = "GET /api/products";
+    private static final String AVAILABLE = "GET /api/products/available";
+    private static final String CATEGORY = "GET /api/products/category/{category}";
+    private static final String SEARCH = "GET /api/products/search";
+    private static final String CREATE = "POST /api/orders";
+    private static final String STATUS = "PATCH /api/orders/{id}/status/{status}";
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Map<Scenario, Integer> mix;
+    private final int totalWeight;
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final Queue<OpenOrder> openOrders = new ConcurrentLinkedQueue<>();
+
+    LoadGenerator(String baseUrl, Duration requestTimeout, int maxInFlight, Map<Scenario, Integer> mix) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        for (String name : new String[]{PRODUCTS, AVAILABLE, CATEGORY, SEARCH, CREATE, STATUS}) {
+            endpoints.put(name, new Endpoint(name));
+        }
+    }
+
+    enum Scenario { CATALOG, SEARCH, ORDER, STATUS }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "60s"));
+        Duration timeout = Duration.parse("PT" + options.getOrDefault("timeout", "10s"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        String csv = options.get("csv");
+
+        LoadGenerator generator = new LoadGenerator(url, timeout, maxInFlight,
+                parseMix(options.getOrDefault("mix", "catalog=40,search=12,order=12,status=36")));
+        generator.seedCatalog();
+        for (String rate : options.getOrDefault("rate", "20").split(",")) {
+            Report report = generator.run(Double.parseDouble(rate.trim()), warmup, duration);
+            report.print(System.out);
+            if (csv != null) {
+                report.appendCsv(Path.of(csv));
+            }
+        }
+    }
+
+    /**
+     * Con la base vacía (H2 recién levantada) crea el menú, para que catálogo y búsquedas devuelvan datos
+     */
+    void seedCatalog() throws IOException, InterruptedException {
+        HttpResponse<String> catalog = http.send(get("/api/products"), HttpResponse.BodyHandlers.ofString());
+        if (catalog.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/products respondió " + catalog.statusCode());
+        }
+        if (objectMapper.readTree(catalog.body()).size() > 0) {
+            return;
+        }
+        for (String[] item : MENU) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "name", item[0],
+                    "description", item[0] + " de la casa",
+                    "price", 2.5 + item[0].length() % 5,
+                    "category", item[1]));
+            http.send(json("POST", "/api/products", body), HttpResponse.BodyHandlers.discarding());
+        }
+        System.out.println("Catálogo vacío: se crearon " + MENU.length + " productos");
+    }
+
+    /**
+     * Corre a una tasa (peticiones/s): calienta, descarta lo medido y mide las llegadas de duration.
+     * Al final espera las respuestas pendientes, que cuentan con toda su demora.
+     */
+    Report run(double rate, Duration warmup, Duration duration) throws InterruptedException {
+        double intervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        boolean measuring = false;
+        long maxLag = 0;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            if (!measuring && intended >= measureFrom) {
+                endpoints.values().forEach(Endpoint::reset);
+                maxLag = 0;
+                measuring = true;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxLag = Math.max(maxLag, -wait);
+            }
+            dispatch(intended);
+        }
+
+        // Se esperan las respuestas en vuelo (o su timeout) antes de la siguiente tasa
+        if (inFlight.tryAcquire(maxInFlight, requestTimeout.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        Map<String, Endpoint.Snapshot> snapshots = new LinkedHashMap<>();
+        endpoints.forEach((name, endpoint) -> snapshots.put(name, endpoint.snapshot()));
+        return new Report(rate, duration, requestTimeout, snapshots, maxLag, openOrders.size());
+    }
+
+    private void dispatch(long intended) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (pick(random)) {
+            case CATALOG -> {
+                int page = random.nextInt(3);
+                if (page == 0) {
+                    send(PRODUCTS, get("/api/products"), intended, null);
+                } else if (page == 1) {
+                    send(AVAILABLE, get("/api/products/available"), intended, null);
+                } else {
+                    send(CATEGORY, get("/api/products/category/" + CATEGORIES[random.nextInt(CATEGORIES.length)]), intended, null);
+                }
+            }
+            case SEARCH -> send(SEARCH, get("/api/products/search?name="
+                    + URLEncoder.encode(SEARCHES[random.nextInt(SEARCHES.length)], StandardCharsets.UTF_8)), intended, null);
+            case STATUS -> {
+                OpenOrder order = openOrders.poll();
+                if (order == null) {
+                    createOrder(intended);
+                } else {
+                    advance(order, intended);
+                }
+            }
+            case ORDER -> createOrder(intended);
+        }
+    }
+
+    private Scenario pick(ThreadLocalRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Mezcla vacía");
+    }
+
+    private void createOrder(long intended) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"customerName\":\"Cliente " + random.nextInt(10_000) + "\",\"drink\":\""
+                + DRINKS[random.nextInt(DRINKS.length)] + "\",\"quantity\":" + (1 + random.nextInt(3)) + "}";
+        send(CREATE, json("POST", "/api/orders", body), intended, response -> {
+            // 201 en modo sync, 202 con ingreso asíncrono: en ambos casos el cuerpo trae el ID
+            if (response.statusCode() == 201 || response.statusCode() == 202) {
+                Long id = readId(response.body());
+                if (id != null) {
+                    openOrders.add(new OpenOrder(id, 0));
+                }
+            }
+        });
+    }
+
+    private void advance(OpenOrder order, long intended) {
+        int step = order.step + 1;
+        boolean sent = send(STATUS, json("PATCH", "/api/orders/" + order.id + "/status/" + WALK[step], ""), intended, response -> {
+            if (response.statusCode() == 200 && step < WALK.length - 1) {
+                openOrders.add(new OpenOrder(order.id, step));
+            } else if (response.statusCode() == 404 || response.statusCode() == 503) {
+                // Con ingreso asíncrono el pedido puede no estar escrito aún; si se rechazó, se reintenta luego
+                openOrders.add(order);
+            }
+        });
+        if (!sent) {
+            openOrders.add(order);
+        }
+    }
+
+    /**
+     * ID del pedido creado, o null si el cuerpo no lo trae: se avisa y el pedido no entra al recorrido de estados.
+     * Corre dentro de whenComplete, donde una excepción se perdería sin rastro
+     */
+    private Long readId(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).path("id");
+            if (id.canConvertToLong()) {
+                return id.asLong();
+            }
+        } catch (IOException e) {
+            // Se reporta abajo junto con los cuerpos sin ID
+        }
+        System.err.println("Respuesta de pedido sin ID, no se avanza su estado: " + body);
+        return null;
+    }
+
+    /**
+     * Envía la petición si hay lugar bajo --max-in-flight; si no, la llegada se registra como omitida y devuelve false
+     */
+    private boolean send(String name, HttpRequest request, long intended, Consumer<HttpResponse<String>> onResponse) {
+        Endpoint endpoint = endpoints.get(name);
+        if (!inFlight.tryAcquire()) {
+            // El servidor no da abasto y las conexiones se acumulan: no se envía, pero cuenta en los percentiles
+            endpoint.skip(requestTimeout.toNanos());
+            return false;
+        }
+        long sent = System.nanoTime();
+        HttpResponse.BodyHandler<String> handler = onResponse != null
+                ? HttpResponse.BodyHandlers.ofString()
+                : HttpResponse.BodyHandlers.replacing(null);
+        http.sendAsync(request, handler).whenComplete((response, failure) -> {
+            long now = System.nanoTime();
+            inFlight.release();
+            endpoint.record(now - intended, now - sent, failure != null ? -1 : response.statusCode());
+            if (failure == null && onResponse != null) {
+                onResponse.accept(response);
+            }
+        });
+        return true;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(requestTimeout).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .method(method, body.isEmpty() ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + entry + " (se espera escenario=peso)");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene escenarios con peso mayor a 0: " + value);
+        }
+        return mix;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Argumento inválido: " + args[i] + " (se espera --clave valor)");
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private record OpenOrder(long id, int step) { }
+
+    /**
+     * Latencias y resultados de un endpoint. responseTime se mide desde el instante planificado e incluye las
+     * llegadas omitidas; serviceTime desde el envío real, solo de las enviadas
+     */
+    private static final class Endpoint {
+        private final String name;
+        private final Recorder responseTime = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final Recorder serviceTime = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+
+        private Endpoint(String name) {
+            this.name = name;
+        }
+
+        void record(long responseNanos, long serviceNanos, int status) {
+            responseTime.recordValue(Math.min(responseNanos, MAX_LATENCY_NANOS));
+            serviceTime.recordValue(Math.min(serviceNanos, MAX_LATENCY_NANOS));
+            if (status < 0) {
+                failures.increment();
+            } else if (status == 429 || status == 503) {
+                rejected.increment();
+            } else if (status >= 500) {
+                serverErrors.increment();
+            } else if (status >= 400) {
+                clientErrors.increment();
+            }
+        }
+
+        void skip(long timeoutNanos) {
+            responseTime.recordValue(Math.min(timeoutNanos, MAX_LATENCY_NANOS));
+            skipped.increment();
+        }
+
+        void reset() {
+            responseTime.reset();
+            serviceTime.reset();
+            clientErrors.reset();
+            rejected.reset();
+            serverErrors.reset();
+            failures.reset();
+            skipped.reset();
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(name, responseTime.getIntervalHistogram(), serviceTime.getIntervalHistogram(),
+                    clientErrors.sum(), rejected.sum(), serverErrors.sum(), failures.sum(), skipped.sum());
+        }
+
+        record Snapshot(String name, Histogram responseTime, Histogram serviceTime,
+                        long clientErrors, long rejected, long serverErrors, long failures, long skipped) {
+
+            Snapshot plus(Snapshot other) {
+                Histogram response = responseTime.copy();
+                response.add(other.responseTime);
+                Histogram service = serviceTime.copy();
+                service.add(other.serviceTime);
+                return new Snapshot(name, response, service, clientErrors + other.clientErrors,
+                        rejected + other.rejected, serverErrors + other.serverErrors, failures + other.failures,
+                        skipped + other.skipped);
+            }
+        }
+    }
+
+    record Report(double rate, Duration duration, Duration requestTimeout, Map<String, Endpoint.Snapshot> endpoints,
+                  long maxLagNanos, int openOrders) {
+
+        private static final String HEADER = String.format(Locale.ROOT,
+                "%-40s %8s %8s %8s %8s %8s %8s %8s %9s %5s %5s %5s %5s %5s",
+                "endpoint", "requests", "req/s", "p50", "p90", "p99", "p99.9", "max", "svc.p99", "4xx", "rej", "5xx", "err",
+                "skip");
+
+        void print(PrintStream out) {
+            out.printf(Locale.ROOT, "%nrate=%.1f req/s duration=%ds (latencias en ms desde el instante planificado)%n",
+                    rate, duration.toSeconds());
+            out.println(HEADER);
+            endpoints.values().stream()
+                    .filter(snapshot -> snapshot.responseTime().getTotalCount() > 0)
+                    .forEach(snapshot -> out.println(line(snapshot)));
+            Endpoint.Snapshot total = total();
+            out.println(line(total));
+            if (total.skipped() > 0) {
+                out.printf("AVISO: %d peticiones no se enviaron (--max-in-flight alcanzado): el servidor no sostiene esta tasa."
+                        + " Cuentan en los percentiles con el timeout (%ds)%n", total.skipped(), requestTimeout.toSeconds());
+            }
+            if (maxLagNanos > TimeUnit.MILLISECONDS.toNanos(10)) {
+                out.printf(Locale.ROOT, "AVISO: el generador se atrasó hasta %.1f ms; esa demora está incluida en las latencias%n",
+                        maxLagNanos / 1e6);
+            }
+            out.println("Pedidos abiertos al terminar: " + openOrders);
+        }
+
+        void appendCsv(Path path) throws IOException {
+            boolean header = !Files.exists(path);
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                if (header) {
+                    out.println("rate,endpoint,requests,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p99_ms,"
+                            + "client_errors,rejected,server_errors,failures,skipped");
+                }
+                for (Endpoint.Snapshot snapshot : endpoints.values()) {
+                    if (snapshot.responseTime().getTotalCount() > 0) {
+                        out.println(csv(snapshot));
+                    }
+                }
+                out.println(csv(total()));
+            }
+        }
+
+        private Endpoint.Snapshot total() {
+            Endpoint.Snapshot total = new Endpoint.Snapshot("total", new Histogram(MAX_LATENCY_NANOS, 3),
+                    new Histogram(MAX_LATENCY_NANOS, 3), 0, 0, 0, 0, 0);
+            for (Endpoint.Snapshot snapshot : endpoints.values()) {
+                total = total.plus(snapshot);
+            }
+            return total;
+        }
+
+        // Respuestas por segundo: solo las peticiones enviadas, no las llegadas omitidas
+        private double throughput(Endpoint.Snapshot snapshot) {
+            return snapshot.serviceTime().getTotalCount() / (duration.toNanos() / 1e9);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        private String line(Endpoint.Snapshot s) {
+            Histogram h = s.responseTime();
+            return String.format(Locale.ROOT, "%-40s %8d %8.1f %8.1f %8.1f %8.1f %8.1f %8.1f %9.1f %5d %5d %5d %5d %5d",
+                    s.name(), h.getTotalCount(), throughput(s), millis(h, 50), millis(h, 90), millis(h, 99),
+                    millis(h, 99.9), h.getMaxValue() / 1e6, millis(s.serviceTime(), 99),
+                    s.clientErrors(), s.rejected(), s.serverErrors(), s.failures(), s.skipped());
+        }
+
+        private String csv(Endpoint.Snapshot s) {
+            Histogram h = s.responseTime();
+            return String.format(Locale.ROOT, "%.1f,%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%d,%d,%d,%d,%d",
+                    rate, s.name(), h.getTotalCount(), throughput(s), millis(h, 50), millis(h, 90), millis(h, 99),
+                    millis(h, 99.9), h.getMaxValue() / 1e6, millis(s.serviceTime(), 99),
+                    s.clientErrors(), s.rejected(), s.serverErrors(), s.failures(), s.skipped());
+        }
+    }
+}
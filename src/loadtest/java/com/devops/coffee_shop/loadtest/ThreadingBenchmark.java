@@ -0,0 +1,189 @@
+package com.devops.coffee_shop.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark de concurrencia fija (lazo cerrado) para comparar el modo de hilos de plataforma con el de hilos
+ * virtuales: N clientes envían una petición, esperan la respuesta y envían la siguiente. Mezcla de trabajo
+ * ligada a la base de datos: 80% GET /api/orders/page y 20% POST /api/orders.
+ * Reporta throughput y latencias (p50/p99/p99.9/máx) por nivel de concurrencia.
+ * Al ser de lazo cerrado mide la latencia de servicio a concurrencia dada; no corrige la omisión coordinada.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:java -Dexec.args="--url http://localhost:8080 --clients 200,1000,5000 --label virtual"
+ * </pre>
+ */
+public class ThreadingBenchmark {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final HttpClient http;
+    private final URI pageUri;
+    private final URI ordersUri;
+    private final Duration requestTimeout;
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    ThreadingBenchmark(String baseUrl, Duration requestTimeout) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.pageUri = URI.create(baseUrl + "/api/orders/page?size=20");
+        this.ordersUri = URI.create(baseUrl + "/api/orders");
+        this.requestTimeout = requestTimeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        String label = options.getOrDefault("label", "platform");
+        Duration warmup = Duration.parse("PT" + options.getOrDefault("warmup", "10s"));
+        Duration duration = Duration.parse("PT" + options.getOrDefault("duration", "30s"));
+        Duration timeout = Duration.parse("PT" + options.getOrDefault("timeout", "30s"));
+        String csv = options.get("csv");
+
+        ThreadingBenchmark benchmark = new ThreadingBenchmark(url, timeout);
+        for (String level : options.getOrDefault("clients", "200,1000,5000").split(",")) {
+            Result result = benchmark.run(Integer.parseInt(level.trim()), warmup, duration);
+            String line = result.format(label);
+            System.out.println(line);
+            if (csv != null) {
+                appendCsv(Path.of(csv), label, result);
+            }
+        }
+    }
+
+    /**
+     * Corre un nivel de concurrencia: calienta, descarta lo medido y mide durante duration
+     */
+    Result run(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            next(running, done);
+            loops.add(done);
+        }
+
+        Thread.sleep(warmup.toMillis());
+        recorder.reset();
+        errors.reset();
+        rejected.reset();
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        Histogram histogram = recorder.getIntervalHistogram();
+        long elapsed = System.nanoTime() - start;
+        long failed = errors.sum();
+        long shed = rejected.sum();
+
+        // Se esperan las peticiones en vuelo antes del siguiente nivel para que no se mezclen
+        running.set(false);
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0])).join();
+        return new Result(clients, histogram, elapsed, failed, shed);
+    }
+
+    private void next(AtomicBoolean running, CompletableFuture<Void> done) {
+        if (!running.get()) {
+            done.complete(null);
+            return;
+        }
+        HttpRequest request = ThreadLocalRandom.current().nextInt(100) < 80 ? pageRequest() : createRequest();
+        long start = System.nanoTime();
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    recorder.recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+                    if (failure != null || response.statusCode() >= 500 && response.statusCode() != 503) {
+                        errors.increment();
+                    } else if (response.statusCode() == 503) {
+                        rejected.increment();
+                    }
+                    next(running, done);
+                });
+    }
+
+    private HttpRequest pageRequest() {
+        return HttpRequest.newBuilder(pageUri).timeout(requestTimeout).GET().build();
+    }
+
+    private HttpRequest createRequest() {
+        int n = ThreadLocalRandom.current().nextInt(10_000);
+        String body = "{\"customerName\":\"Bench " + n + "\",\"drink\":\"latte\",\"quantity\":" + (n % 3 + 1) + "}";
+        return HttpRequest.newBuilder(ordersUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void appendCsv(Path path, String label, Result result) throws IOException {
+        boolean header = !Files.exists(path);
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (header) {
+                out.println("mode,clients,requests,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,errors,rejected");
+            }
+            out.println(result.csv(label));
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Argumento inválido: " + args[i] + " (se espera --clave valor)");
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    record Result(int clients, Histogram histogram, long elapsedNanos, long errors, long rejected) {
+
+        double throughput() {
+            return histogram.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        double millis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        String format(String label) {
+            return String.format(Locale.ROOT,
+                    "mode=%-8s clients=%-5d requests=%-8d throughput=%8.1f req/s p50=%7.1fms p99=%8.1fms"
+                            + " p99.9=%8.1fms max=%8.1fms errors=%d rejected=%d",
+                    label, clients, histogram.getTotalCount(), throughput(), millis(50), millis(99), millis(99.9),
+                    histogram.getMaxValue() / 1e6, errors, rejected);
+        }
+
+        String csv(String label) {
+            return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d,%d",
+                    label, clients, histogram.getTotalCount(), throughput(), millis(50), millis(99), millis(99.9),
+                    histogram.getMaxValue() / 1e6, errors, rejected);
+        }
+    }
+}
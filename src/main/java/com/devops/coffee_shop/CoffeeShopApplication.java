@@ -2,8 +2,12 @@ package com.devops.coffee_shop;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+// El ConnectionFactory de R2DBC lo crea ReactiveOrdersConfig solo con el perfil reactive. Sin la exclusión,
+// Boot crearía uno embebido siempre y un R2dbcTransactionManager que competiría con el de JPA en @Transactional
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class CoffeeShopApplication {
 
     public static void main(String[] args) {
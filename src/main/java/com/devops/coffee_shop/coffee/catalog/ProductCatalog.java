@@ -0,0 +1,81 @@
+package com.devops.coffee_shop.coffee.catalog;
+
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de productos en memoria. Los lectores obtienen siempre una copia inmutable completa;
+ * cada reconstrucción reemplaza la copia anterior de forma atómica (copy-on-write).
+ */
+@Component
+public class ProductCatalog {
+
+    private final CoffeeMetrics coffeeMetrics;
+
+    // Serializa las reconstrucciones: la última en ejecutarse siempre lee datos posteriores a cualquier commit previo
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile ProductCatalogSnapshot current;
+
+    public ProductCatalog(CoffeeMetrics coffeeMetrics) {
+        this.coffeeMetrics = coffeeMetrics;
+    }
+
+    /**
+     * Retorna la copia vigente, cargándola con el loader si todavía no existe
+     */
+    public ProductCatalogSnapshot snapshot(Supplier<List<ProductDto>> loader) {
+        ProductCatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            coffeeMetrics.incrementCatalogHits();
+            return snapshot;
+        }
+        coffeeMetrics.incrementCatalogMisses();
+        rebuildLock.lock();
+        try {
+            snapshot = current;
+            return snapshot != null ? snapshot : load(loader);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Retorna la copia vigente sin cargarla, o null si no hay ninguna
+     */
+    public ProductCatalogSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Reconstruye la copia con el contenido actual de la base de datos
+     */
+    public void rebuild(Supplier<List<ProductDto>> loader) {
+        rebuildLock.lock();
+        try {
+            load(loader);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private ProductCatalogSnapshot load(Supplier<List<ProductDto>> loader) {
+        long start = System.nanoTime();
+        try {
+            ProductCatalogSnapshot snapshot = ProductCatalogSnapshot.of(loader.get());
+            current = snapshot;
+            return snapshot;
+        } catch (RuntimeException e) {
+            // Sin copia vigente el próximo lector vuelve a cargar en lugar de servir datos viejos
+            current = null;
+            throw e;
+        } finally {
+            coffeeMetrics.recordCatalogRebuild(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.devops.coffee_shop.coffee.catalog;
+
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia inmutable del catálogo de productos, indexada por ID, categoría y disponibilidad.
+ * Los DTOs se comparten entre lectores y no deben modificarse.
+ * Incluye ETags calculados a partir del contenido: iguales en cualquier instancia para el mismo catálogo.
+ */
+public final class ProductCatalogSnapshot {
+
+    private final Map<Long, ProductDto> byId;
+    private final List<ProductDto> all;
+    private final List<ProductDto> available;
+    private final Map<ProductCategory, List<ProductDto>> byCategory;
+    private final Map<Long, String> etags;
+    private final String etag;
+    private final long loadedAt;
+
+    private ProductCatalogSnapshot(Map<Long, ProductDto> byId, List<ProductDto> all, List<ProductDto> available,
+                                   Map<ProductCategory, List<ProductDto>> byCategory,
+                                   Map<Long, String> etags, String etag) {
+        this.byId = byId;
+        this.all = all;
+        this.available = available;
+        this.byCategory = byCategory;
+        this.etags = etags;
+        this.etag = etag;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Construye los índices a partir de la lista completa de productos
+     */
+    public static ProductCatalogSnapshot of(List<ProductDto> products) {
+        List<ProductDto> sorted = new ArrayList<>(products);
+        sorted.sort(Comparator.comparing(ProductDto::getId));
+
+        Map<Long, ProductDto> byId = new LinkedHashMap<>();
+        List<ProductDto> available = new ArrayList<>();
+        Map<ProductCategory, List<ProductDto>> byCategory = new EnumMap<>(ProductCategory.class);
+        Map<Long, String> etags = new HashMap<>();
+        MessageDigest catalogDigest = sha256();
+        for (ProductDto product : sorted) {
+            byId.put(product.getId(), product);
+            String productEtag = etagOf(product);
+            etags.put(product.getId(), productEtag);
+            catalogDigest.update(productEtag.getBytes(StandardCharsets.US_ASCII));
+            if (product.isAvailable()) {
+                available.add(product);
+            }
+            byCategory.computeIfAbsent(product.getCategory(), category -> new ArrayList<>()).add(product);
+        }
+        byCategory.replaceAll((category, list) -> List.copyOf(list));
+
+        return new ProductCatalogSnapshot(
+                Collections.unmodifiableMap(byId),
+                List.copyOf(sorted),
+                List.copyOf(available),
+                Collections.unmodifiableMap(byCategory),
+                Map.copyOf(etags),
+                HexFormat.of().formatHex(catalogDigest.digest(), 0, 16));
+    }
+
+    /**
+     * ETag del catálogo completo; cambia con cualquier alta, baja o modificación de productos
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * ETag de un producto, o null si no existe
+     */
+    public String getEtag(Long id) {
+        return etags.get(id);
+    }
+
+    /**
+     * Momento en que se construyó esta copia (milisegundos desde epoch), usado como Last-Modified del catálogo.
+     * Una baja no cambia el updatedAt de ningún producto, por eso no se usa el máximo updatedAt.
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    private static String etagOf(ProductDto product) {
+        String content = product.getId() + "\u0000" + product.getName() + "\u0000" + product.getDescription()
+                + "\u0000" + (product.getPrice() != null ? product.getPrice().toPlainString() : null)
+                + "\u0000" + product.getCategory() + "\u0000" + product.isAvailable()
+                + "\u0000" + product.getCreatedAt() + "\u0000" + product.getUpdatedAt();
+        return HexFormat.of().formatHex(sha256().digest(content.getBytes(StandardCharsets.UTF_8)), 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public ProductDto getById(Long id) {
+        return byId.get(id);
+    }
+
+    public List<ProductDto> getAll() {
+        return all;
+    }
+
+    public List<ProductDto> getAvailable() {
+        return available;
+    }
+
+    public List<ProductDto> getByCategory(ProductCategory category) {
+        return byCategory.getOrDefault(category, List.of());
+    }
+}
@@ -0,0 +1,41 @@
+package com.devops.coffee_shop.coffee.catalog;
+
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un producto.
+ * Se procesa después del commit de la transacción que lo publicó.
+ */
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final ProductDto product;
+
+    private ProductChangedEvent(Long productId, ProductDto product) {
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(ProductDto product) {
+        return new ProductChangedEvent(product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Estado del producto después del cambio, o null si fue eliminado
+     */
+    public ProductDto getProduct() {
+        return product;
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
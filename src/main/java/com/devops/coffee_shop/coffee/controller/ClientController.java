@@ -1,7 +1,10 @@
 package com.devops.coffee_shop.coffee.controller;
 
 import com.devops.coffee_shop.coffee.dto.ClientDto;
+import com.devops.coffee_shop.coffee.idempotency.IdempotentRequests;
+import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
 import com.devops.coffee_shop.coffee.service.ClientService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,7 +14,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +34,15 @@ public class ClientController {
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private CoffeeMetrics coffeeMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Obtiene todos los clientes
      */
@@ -41,10 +57,29 @@ public class ClientController {
     }
 
     /**
-     * Obtiene un cliente por ID
+     * Exporta todos los clientes como NDJSON, escribiendo la respuesta a medida que se leen
+     */
+    @Operation(summary = "Exportar clientes", description = "Retorna todos los clientes en formato NDJSON (un objeto por línea)")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportClients() {
+        return NdjsonResponses.<ClientDto>stream(objectMapper, clientService::exportClients);
+    }
+
+    /**
+     * Obtiene un cliente por ID; si el cliente envía la versión que ya tiene, responde 304
+     * consultando solo la fecha de modificación
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ClientDto> getClientById(@PathVariable Long id) {
+    public ResponseEntity<ClientDto> getClientById(@PathVariable Long id, WebRequest request) {
+        Optional<LocalDateTime> updatedAt = clientService.getClientUpdatedAt(id);
+        if (updatedAt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDateTime version = updatedAt.get();
+        String etag = id + "-" + ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), version);
+        if (ConditionalGets.notModified(request, coffeeMetrics, "client", etag, ConditionalGets.toEpochMillis(version))) {
+            return null;
+        }
         Optional<ClientDto> client = clientService.getClientById(id);
         return client.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -78,18 +113,36 @@ public class ClientController {
     }
 
     /**
-     * Crea un nuevo cliente
+     * Busca clientes por prefijo del nombre completo, sin distinguir mayúsculas ni acentos
      */
-    @PostMapping
-    public ResponseEntity<?> createClient(@Valid @RequestBody ClientDto clientDto) {
+    @Operation(summary = "Buscar clientes", description = "Busca por prefijo de \"nombre apellido\" o \"apellido nombre\"")
+    @GetMapping(value = "/search", params = "q")
+    public ResponseEntity<?> searchClients(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
         try {
-            ClientDto createdClient = clientService.createClient(clientDto);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
+            List<ClientDto> clients = clientService.searchClients(q, limit);
+            return ResponseEntity.ok(clients);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    /**
+     * Crea un nuevo cliente
+     */
+    @PostMapping
+    public ResponseEntity<?> createClient(
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody ClientDto clientDto) {
+        return idempotentRequests.execute("clients", idempotencyKey, clientDto, () -> {
+            try {
+                ClientDto createdClient = clientService.createClient(clientDto);
+                return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
     /**
      * Actualiza un cliente existente
      */
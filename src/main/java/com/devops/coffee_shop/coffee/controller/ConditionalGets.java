@@ -0,0 +1,38 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Resuelve GETs condicionales (If-None-Match / If-Modified-Since) antes de armar la respuesta
+ */
+final class ConditionalGets {
+
+    private ConditionalGets() {}
+
+    /**
+     * Agrega ETag y Last-Modified a la respuesta y retorna true si el cliente ya tiene esta versión;
+     * en ese caso la respuesta quedó marcada como 304 y el controlador debe retornar null
+     */
+    static boolean notModified(WebRequest request, CoffeeMetrics metrics, String endpoint,
+                               String etag, long lastModified) {
+        boolean notModified = request.checkNotModified(etag, lastModified);
+        metrics.recordConditionalGet(endpoint, notModified);
+        return notModified;
+    }
+
+    /**
+     * ETag débil para respuestas que pueden comprimirse: Tomcat no aplica gzip a respuestas con ETag fuerte
+     * (cambiaría los bytes de la representación). If-None-Match en GET compara de forma débil, así que el 304 no cambia.
+     */
+    static String weak(String etag) {
+        return "W/\"" + etag + "\"";
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,52 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Construye respuestas NDJSON (un objeto JSON por línea) que se escriben a medida que se producen
+ */
+final class NdjsonResponses {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private NdjsonResponses() {}
+
+    /**
+     * El productor recibe un consumidor al que entrega cada elemento; los elementos se
+     * serializan directamente sobre la respuesta y se hace flush cada FLUSH_EVERY líneas
+     */
+    static <T> ResponseEntity<StreamingResponseBody> stream(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                try {
+                    producer.accept(item -> {
+                        try {
+                            generator.writeObject(item);
+                            generator.writeRaw('\n');
+                            if (++written[0] % FLUSH_EVERY == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -1,13 +1,30 @@
 package com.devops.coffee_shop.coffee.controller;
 
 import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderAnalyticsDto;
+import com.devops.coffee_shop.coffee.dto.OrderBatchResultDto;
 import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.dto.OrderPageDto;
+import com.devops.coffee_shop.coffee.dto.OrderStatsDto;
+import com.devops.coffee_shop.coffee.idempotency.IdempotentRequests;
+import com.devops.coffee_shop.coffee.intake.OrderIntake;
+import com.devops.coffee_shop.coffee.intake.OrderIntakeFullException;
 import com.devops.coffee_shop.coffee.service.OrderService;
+import com.devops.coffee_shop.coffee.stream.OrderEventBroadcaster;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,10 +35,57 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderEventBroadcaster orderEventBroadcaster;
+
+    // Solo existe con coffee.orders.intake.mode=async
+    @Autowired(required = false)
+    private OrderIntake orderIntake;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Crea un pedido; con el header Idempotency-Key los reintentos devuelven la respuesta original
+     */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto dto) {
-        OrderDto created = orderService.createOrder(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+            @RequestBody OrderDto dto) {
+        return idempotentRequests.execute("orders", idempotencyKey, dto, () -> submitOrder(dto));
+    }
+
+    private ResponseEntity<?> submitOrder(OrderDto dto) {
+        try {
+            if (orderIntake == null) {
+                OrderDto created = orderService.createOrder(dto);
+                return ResponseEntity.status(HttpStatus.CREATED).body(created);
+            }
+            OrderDto accepted = orderIntake.submit(dto);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/" + accepted.getId()))
+                    .body(accepted);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OrderIntakeFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrders(@RequestBody List<OrderDto> dtos) {
+        try {
+            List<OrderBatchResultDto> results = orderService.createOrders(dtos);
+            boolean allCreated = results.stream().allMatch(OrderBatchResultDto::isCreated);
+            return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.OK).body(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping
@@ -29,6 +93,56 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getOrdersPage(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        try {
+            OrderPageDto page = orderService.getOrdersPage(status, from, to, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return NdjsonResponses.<OrderDto>stream(objectMapper, orderService::exportOrders);
+    }
+
+    /**
+     * Stream SSE con los pedidos creados y los cambios de estado, opcionalmente filtrado por estado
+     * (por ejemplo ?status=READY para la pantalla de retiro: recibe los pedidos que pasan a READY y los que salen)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestParam(required = false) List<OrderStatus> status) {
+        return orderEventBroadcaster.subscribe(status);
+    }
+
+    /**
+     * Cantidad de pedidos por estado, servida desde contadores en memoria
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsDto> getStats() {
+        return ResponseEntity.ok(orderService.getStats());
+    }
+
+    /**
+     * Pedidos por minuto por bebida y por estado; window admite valores como 15m, 2h o PT30M (máximo 24h)
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam(defaultValue = "1h") String window) {
+        try {
+            OrderAnalyticsDto analytics = orderService.getAnalytics(DurationStyle.detectAndParse(window));
+            return ResponseEntity.ok(analytics);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
@@ -37,9 +151,15 @@ public class OrderController {
     }
 
     @PatchMapping("/{id}/status/{status}")
-    public ResponseEntity<OrderDto> updateStatus(@PathVariable Long id, @PathVariable OrderStatus status) {
-        OrderDto updated = orderService.updateStatus(id, status);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<?> updateStatus(@PathVariable Long id, @PathVariable OrderStatus status) {
+        try {
+            OrderDto updated = orderService.updateStatus(id, status);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
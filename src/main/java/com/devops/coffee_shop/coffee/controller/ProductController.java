@@ -1,8 +1,11 @@
 package com.devops.coffee_shop.coffee.controller;
 
+import com.devops.coffee_shop.coffee.catalog.ProductCatalogSnapshot;
 import com.devops.coffee_shop.coffee.domain.ProductCategory;
 import com.devops.coffee_shop.coffee.dto.ProductDto;
+import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
 import com.devops.coffee_shop.coffee.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,6 +16,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -29,6 +34,12 @@ public class ProductController {
     
     @Autowired
     private ProductService productService;
+
+    @Autowired
+    private CoffeeMetrics coffeeMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     /**
      * Obtiene todos los productos
@@ -38,19 +49,39 @@ public class ProductController {
         @ApiResponse(responseCode = "200", description = "Lista de productos obtenida exitosamente")
     })
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        List<ProductDto> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductDto>> getAllProducts(WebRequest request) {
+        ProductCatalogSnapshot catalog = productService.getCatalog();
+        String etag = ConditionalGets.weak(catalog.getEtag());
+        if (ConditionalGets.notModified(request, coffeeMetrics, "products", etag, catalog.getLoadedAt())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalog.getAll());
     }
     
+    /**
+     * Exporta todos los productos como NDJSON, escribiendo la respuesta a medida que se leen
+     */
+    @Operation(summary = "Exportar productos", description = "Retorna todos los productos en formato NDJSON (un objeto por línea)")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return NdjsonResponses.<ProductDto>stream(objectMapper, productService::exportProducts);
+    }
+
     /**
      * Obtiene un producto por ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        Optional<ProductDto> product = productService.getProductById(id);
-        return product.map(ResponseEntity::ok)
-                     .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id, WebRequest request) {
+        ProductCatalogSnapshot catalog = productService.getCatalog();
+        ProductDto product = catalog.getById(id);
+        if (product == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long lastModified = product.getUpdatedAt() != null ? ConditionalGets.toEpochMillis(product.getUpdatedAt()) : -1;
+        if (ConditionalGets.notModified(request, coffeeMetrics, "product", catalog.getEtag(id), lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok(product);
     }
     
     /**
@@ -66,9 +97,13 @@ public class ProductController {
      * Obtiene productos disponibles
      */
     @GetMapping("/available")
-    public ResponseEntity<List<ProductDto>> getAvailableProducts() {
-        List<ProductDto> products = productService.getAvailableProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<List<ProductDto>> getAvailableProducts(WebRequest request) {
+        ProductCatalogSnapshot catalog = productService.getCatalog();
+        String etag = ConditionalGets.weak(catalog.getEtag());
+        if (ConditionalGets.notModified(request, coffeeMetrics, "products_available", etag, catalog.getLoadedAt())) {
+            return null;
+        }
+        return ResponseEntity.ok(catalog.getAvailable());
     }
     
     /**
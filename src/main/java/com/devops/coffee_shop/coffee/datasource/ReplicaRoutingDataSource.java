@@ -0,0 +1,168 @@
+package com.devops.coffee_shop.coffee.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envía las transacciones readOnly a las réplicas (round-robin entre las sanas) y todo lo demás al primario.
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión física se pide en la primera consulta,
+ * cuando la transacción ya marcó si es de solo lectura.
+ * Una réplica que falla al entregar una conexión o en el chequeo periódico queda fuera hasta que vuelva a responder;
+ * sin réplicas sanas las lecturas van al primario.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    // Segundos de espera de Connection.isValid en el chequeo de salud
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Map<String, Counter> connections = new HashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, MeterRegistry registry) {
+        this.primary = primary;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        connections.put(PRIMARY, connectionCounter(registry, PRIMARY));
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, Counter.builder("coffee_datasource_replica_ejections_total")
+                    .description("Veces que una réplica quedó fuera de la rotación por fallar")
+                    .tag("target", name)
+                    .register(registry));
+            this.replicas.add(replica);
+            targets.put(name, dataSource);
+            connections.put(name, connectionCounter(registry, name));
+            Gauge.builder("coffee_datasource_replica_up", replica, r -> r.up.get() ? 1 : 0)
+                    .description("1 si la réplica está en la rotación de lecturas, 0 si fue excluida")
+                    .tag("target", name)
+                    .register(registry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    private static Counter connectionCounter(MeterRegistry registry, String target) {
+        return Counter.builder("coffee_datasource_connections_total")
+                .description("Conexiones entregadas por destino (primario o réplica)")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = nextHealthyReplica();
+        return replica != null ? replica.name : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object target = determineCurrentLookupKey();
+        for (Replica replica : replicas) {
+            if (replica.name.equals(target)) {
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    connections.get(replica.name).increment();
+                    return connection;
+                } catch (SQLException e) {
+                    eject(replica, e);
+                    break;
+                }
+            }
+        }
+        Connection connection = primary.getConnection();
+        connections.get(PRIMARY).increment();
+        return connection;
+    }
+
+    /**
+     * Verifica cada réplica: excluye las que no responden y reincorpora las que se recuperaron
+     */
+    @Scheduled(initialDelayString = "${coffee.datasource.replica-check-interval:5s}",
+               fixedDelayString = "${coffee.datasource.replica-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("La conexión no respondió en " + VALIDATION_TIMEOUT_SECONDS + "s");
+                }
+                if (replica.up.compareAndSet(false, true)) {
+                    log.info("Réplica {} reincorporada a la rotación de lecturas", replica.name);
+                }
+            } catch (SQLException e) {
+                eject(replica, e);
+            }
+        }
+    }
+
+    /**
+     * Réplicas que reciben lecturas en este momento
+     */
+    public List<String> getHealthyReplicas() {
+        return replicas.stream().filter(replica -> replica.up.get()).map(replica -> replica.name).toList();
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.up.get()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void eject(Replica replica, SQLException cause) {
+        if (replica.up.compareAndSet(true, false)) {
+            replica.ejections.increment();
+            log.warn("Réplica {} excluida de la rotación de lecturas: {}", replica.name, cause.getMessage());
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter ejections;
+        private final AtomicBoolean up = new AtomicBoolean(true);
+
+        private Replica(String name, DataSource dataSource, Counter ejections) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.ejections = ejections;
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package com.devops.coffee_shop.coffee.domain;
 
+import com.devops.coffee_shop.coffee.search.TextNormalizer;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.Locale;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entidad que representa un cliente de la cafetería
  */
 @Entity
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+        @Index(name = "idx_clients_search_key", columnList = "search_key"),
+        @Index(name = "idx_clients_reverse_search_key", columnList = "reverse_search_key")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = Client.UK_DOCUMENT_NUMBER, columnNames = "document_number"),
+        @UniqueConstraint(name = Client.UK_NAME, columnNames = {"first_name_lower", "last_name_lower"})
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Client {
 
+    public static final String UK_DOCUMENT_NUMBER = "uk_clients_document_number";
+    public static final String UK_NAME = "uk_clients_name";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Getter
@@ -29,7 +44,7 @@ public class Client {
     @Setter
     private String lastName;
 
-    @Column(nullable = false, unique = true, length = 64)
+    @Column(nullable = false, length = 64)
     @Getter
     @Setter
     private String documentNumber;
@@ -44,6 +59,24 @@ public class Client {
     @Setter
     private boolean active = true;
 
+    // Nombre completo normalizado ("nombre apellido" y "apellido nombre") para búsquedas por prefijo
+    @Column(name = "search_key", length = 511)
+    @Getter
+    private String searchKey;
+
+    @Column(name = "reverse_search_key", length = 511)
+    @Getter
+    private String reverseSearchKey;
+
+    // Nombre y apellido en minúsculas: la restricción única sobre ambos equivale a un índice sobre lower(...)
+    @Column(name = "first_name_lower")
+    @Getter
+    private String firstNameLower;
+
+    @Column(name = "last_name_lower")
+    @Getter
+    private String lastNameLower;
+
     @Column(name = "created_at")
     @Getter
     @Setter
@@ -75,8 +108,26 @@ public class Client {
         this.documentNumber = documentNumber;
     }
 
+    @PrePersist
+    public void prePersist() {
+        updateDerivedKeys();
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        updateDerivedKeys();
+    }
+
+    /**
+     * Recalcula las columnas derivadas del nombre (búsqueda y unicidad)
+     */
+    public void updateDerivedKeys() {
+        this.firstNameLower = firstName != null ? firstName.toLowerCase(Locale.ROOT) : null;
+        this.lastNameLower = lastName != null ? lastName.toLowerCase(Locale.ROOT) : null;
+        String first = TextNormalizer.normalize(firstName);
+        String last = TextNormalizer.normalize(lastName);
+        this.searchKey = (first + " " + last).trim();
+        this.reverseSearchKey = (last + " " + first).trim();
     }
 }
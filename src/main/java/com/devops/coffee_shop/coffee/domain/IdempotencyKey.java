@@ -0,0 +1,85 @@
+package com.devops.coffee_shop.coffee.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Idempotency-Key guardada en base de datos (coffee.idempotency.store=jdbc).
+ * Una fila sin responseStatus corresponde a una petición todavía en curso.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyKey implements Persistable<String> {
+
+    // Alcance y clave, por ejemplo "orders:3f6c..."
+    @Id
+    @Column(length = 300)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type")
+    private String responseContentType;
+
+    @Column(name = "response_location")
+    private String responseLocation;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Se persiste con INSERT (no merge) para que una clave duplicada falle por la clave primaria
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyKey() {}
+
+    public IdempotencyKey(String id, String fingerprint, Instant expiresAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    public Integer getResponseStatus() { return responseStatus; }
+    public void setResponseStatus(Integer responseStatus) { this.responseStatus = responseStatus; }
+
+    public String getResponseContentType() { return responseContentType; }
+    public void setResponseContentType(String responseContentType) { this.responseContentType = responseContentType; }
+
+    public String getResponseLocation() { return responseLocation; }
+    public void setResponseLocation(String responseLocation) { this.responseLocation = responseLocation; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,36 @@
+package com.devops.coffee_shop.coffee.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * Copia persistida de un minuto del buffer de métricas de pedidos, para no perder la ventana al reiniciar
+ */
+@Entity
+@Table(name = "order_rollups")
+public class OrderRollup {
+
+    // Minutos desde epoch (UTC)
+    @Id
+    @Column(name = "epoch_minute")
+    private Long epochMinute;
+
+    // JSON {"drinks": {...}, "statuses": {...}}
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false)
+    private String counts;
+
+    public OrderRollup() {}
+
+    public OrderRollup(Long epochMinute, String counts) {
+        this.epochMinute = epochMinute;
+        this.counts = counts;
+    }
+
+    public Long getEpochMinute() { return epochMinute; }
+    public void setEpochMinute(Long epochMinute) { this.epochMinute = epochMinute; }
+
+    public String getCounts() { return counts; }
+    public void setCounts(String counts) { this.counts = counts; }
+}
@@ -1,9 +1,55 @@
 package com.devops.coffee_shop.coffee.domain;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     NEW,
     IN_PROGRESS,
     READY,
     DELIVERED,
-    CANCELED
+    CANCELED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> NEXT = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> PREVIOUS = new EnumMap<>(OrderStatus.class);
+
+    // Tabla de transiciones permitidas; DELIVERED y CANCELED son estados finales
+    static {
+        NEXT.put(NEW, EnumSet.of(IN_PROGRESS, CANCELED));
+        NEXT.put(IN_PROGRESS, EnumSet.of(READY, CANCELED));
+        NEXT.put(READY, EnumSet.of(DELIVERED, CANCELED));
+        NEXT.put(DELIVERED, EnumSet.noneOf(OrderStatus.class));
+        NEXT.put(CANCELED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus status : values()) {
+            PREVIOUS.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        NEXT.forEach((from, targets) -> targets.forEach(to -> PREVIOUS.get(to).add(from)));
+        NEXT.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        PREVIOUS.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    /**
+     * Verifica si un pedido en este estado puede pasar al estado indicado
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return NEXT.get(this).contains(next);
+    }
+
+    /**
+     * Indica si es un estado final (DELIVERED o CANCELED); los demás son pedidos pendientes
+     */
+    public boolean isFinal() {
+        return NEXT.get(this).isEmpty();
+    }
+
+    /**
+     * Estados desde los que se puede llegar a este estado
+     */
+    public Set<OrderStatus> allowedPredecessors() {
+        return PREVIOUS.get(this);
+    }
 }
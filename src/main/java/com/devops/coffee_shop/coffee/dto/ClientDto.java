@@ -70,4 +70,16 @@ public class ClientDto {
         this.documentNumber = documentNumber;
         this.active = active;
     }
+
+    // Usado por las consultas con proyección (SELECT new ...) de ClientRepository
+    public ClientDto(Long id, String firstName, String lastName, Date birthDate, boolean active,
+                     LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.birthDate = birthDate;
+        this.active = active;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 }
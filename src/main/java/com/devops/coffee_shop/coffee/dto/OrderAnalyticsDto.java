@@ -0,0 +1,44 @@
+package com.devops.coffee_shop.coffee.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pedidos por minuto en la ventana [from, to), con los totales de la ventana
+ */
+public class OrderAnalyticsDto {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Map<String, Long> byDrink;
+    private Map<String, Long> byStatus;
+    private List<OrderMinuteDto> minutes;
+
+    public OrderAnalyticsDto() {}
+
+    public OrderAnalyticsDto(LocalDateTime from, LocalDateTime to, Map<String, Long> byDrink,
+                             Map<String, Long> byStatus, List<OrderMinuteDto> minutes) {
+        this.from = from;
+        this.to = to;
+        this.byDrink = byDrink;
+        this.byStatus = byStatus;
+        this.minutes = minutes;
+    }
+
+    // Getters y Setters
+    public LocalDateTime getFrom() { return from; }
+    public void setFrom(LocalDateTime from) { this.from = from; }
+
+    public LocalDateTime getTo() { return to; }
+    public void setTo(LocalDateTime to) { this.to = to; }
+
+    public Map<String, Long> getByDrink() { return byDrink; }
+    public void setByDrink(Map<String, Long> byDrink) { this.byDrink = byDrink; }
+
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
+
+    public List<OrderMinuteDto> getMinutes() { return minutes; }
+    public void setMinutes(List<OrderMinuteDto> minutes) { this.minutes = minutes; }
+}
@@ -0,0 +1,42 @@
+package com.devops.coffee_shop.coffee.dto;
+
+/**
+ * Resultado de un pedido dentro de una carga por lotes
+ */
+public class OrderBatchResultDto {
+
+    private int index;
+    private boolean created;
+    private OrderDto order;
+    private String error;
+
+    public OrderBatchResultDto() {}
+
+    public static OrderBatchResultDto created(int index, OrderDto order) {
+        OrderBatchResultDto result = new OrderBatchResultDto();
+        result.index = index;
+        result.created = true;
+        result.order = order;
+        return result;
+    }
+
+    public static OrderBatchResultDto rejected(int index, String error) {
+        OrderBatchResultDto result = new OrderBatchResultDto();
+        result.index = index;
+        result.error = error;
+        return result;
+    }
+
+    // Getters y Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public boolean isCreated() { return created; }
+    public void setCreated(boolean created) { this.created = created; }
+
+    public OrderDto getOrder() { return order; }
+    public void setOrder(OrderDto order) { this.order = order; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -12,6 +12,18 @@ public class OrderDto {
     private OrderStatus status;
     private LocalDateTime createdAt;
 
+    public OrderDto() {}
+
+    // Usado por las consultas con proyección (SELECT new ...) de OrderRepository
+    public OrderDto(Long id, String customerName, String drink, int quantity, OrderStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.customerName = customerName;
+        this.drink = drink;
+        this.quantity = quantity;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
     // Getters y Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
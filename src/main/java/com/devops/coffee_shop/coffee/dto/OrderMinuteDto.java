@@ -0,0 +1,32 @@
+package com.devops.coffee_shop.coffee.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Pedidos de un minuto: creados por bebida y cambios hacia cada estado
+ */
+public class OrderMinuteDto {
+
+    private LocalDateTime minute;
+    private Map<String, Long> byDrink;
+    private Map<String, Long> byStatus;
+
+    public OrderMinuteDto() {}
+
+    public OrderMinuteDto(LocalDateTime minute, Map<String, Long> byDrink, Map<String, Long> byStatus) {
+        this.minute = minute;
+        this.byDrink = byDrink;
+        this.byStatus = byStatus;
+    }
+
+    // Getters y Setters
+    public LocalDateTime getMinute() { return minute; }
+    public void setMinute(LocalDateTime minute) { this.minute = minute; }
+
+    public Map<String, Long> getByDrink() { return byDrink; }
+    public void setByDrink(Map<String, Long> byDrink) { this.byDrink = byDrink; }
+
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
+}
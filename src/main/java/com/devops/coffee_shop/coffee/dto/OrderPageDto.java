@@ -0,0 +1,26 @@
+package com.devops.coffee_shop.coffee.dto;
+
+import java.util.List;
+
+/**
+ * Página de pedidos con el cursor opaco para pedir la siguiente
+ */
+public class OrderPageDto {
+
+    private List<OrderDto> items;
+    private String nextCursor;
+
+    public OrderPageDto() {}
+
+    public OrderPageDto(List<OrderDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters y Setters
+    public List<OrderDto> getItems() { return items; }
+    public void setItems(List<OrderDto> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,33 @@
+package com.devops.coffee_shop.coffee.dto;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+
+import java.util.Map;
+
+/**
+ * Cantidad de pedidos por estado, total y pendientes (NEW, IN_PROGRESS o READY)
+ */
+public class OrderStatsDto {
+
+    private Map<OrderStatus, Long> byStatus;
+    private long total;
+    private long pending;
+
+    public OrderStatsDto() {}
+
+    public OrderStatsDto(Map<OrderStatus, Long> byStatus, long total, long pending) {
+        this.byStatus = byStatus;
+        this.total = total;
+        this.pending = pending;
+    }
+
+    // Getters y Setters
+    public Map<OrderStatus, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<OrderStatus, Long> byStatus) { this.byStatus = byStatus; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+}
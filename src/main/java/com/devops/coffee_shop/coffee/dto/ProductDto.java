@@ -43,6 +43,19 @@ public class ProductDto {
         this.category = category;
     }
     
+    // Usado por las consultas con proyección (SELECT new ...) de ProductRepository
+    public ProductDto(Long id, String name, String description, BigDecimal price, ProductCategory category,
+                      boolean available, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.category = category;
+        this.available = available;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters y Setters
     public Long getId() {
         return id;
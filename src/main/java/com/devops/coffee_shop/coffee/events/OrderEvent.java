@@ -0,0 +1,68 @@
+package com.devops.coffee_shop.coffee.events;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+
+import java.util.Set;
+
+/**
+ * Evento publicado por OrderService cuando un pedido se crea, cambia de estado o se elimina.
+ * Los listeners lo procesan después del commit de la transacción que lo publicó, o enseguida si se publicó
+ * fuera de una transacción (el servidor reactivo de pedidos, donde cada sentencia se confirma sola).
+ */
+public class OrderEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        DELETED
+    }
+
+    private final Type type;
+    private final OrderDto order;
+    private final OrderStatus previousStatus;
+
+    private OrderEvent(Type type, OrderDto order, OrderStatus previousStatus) {
+        this.type = type;
+        this.order = order;
+        this.previousStatus = previousStatus;
+    }
+
+    public static OrderEvent created(OrderDto order) {
+        return new OrderEvent(Type.CREATED, order, null);
+    }
+
+    public static OrderEvent statusChanged(OrderDto order, OrderStatus previousStatus) {
+        return new OrderEvent(Type.STATUS_CHANGED, order, previousStatus);
+    }
+
+    public static OrderEvent deleted(OrderDto order) {
+        return new OrderEvent(Type.DELETED, order, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Estado del pedido después del cambio (para DELETED, el último estado antes de eliminarlo)
+     */
+    public OrderDto getOrder() {
+        return order;
+    }
+
+    /**
+     * Estado anterior en STATUS_CHANGED; null en los demás tipos
+     */
+    public OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    /**
+     * Si el pedido entra o sale de alguno de los estados: una pantalla de retiro suscrita a READY recibe
+     * también READY → DELIVERED y READY → CANCELED
+     */
+    public boolean involves(Set<OrderStatus> statuses) {
+        return statuses.contains(order.getStatus()) || previousStatus != null && statuses.contains(previousStatus);
+    }
+}
@@ -0,0 +1,50 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+/**
+ * Resultado de reservar una Idempotency-Key en el IdempotencyStore
+ */
+public class IdempotencyClaim {
+
+    public enum Outcome {
+        /** La clave es nueva: quien la reservó debe ejecutar la petición */
+        NEW,
+        /** La petición ya se completó: se devuelve la respuesta guardada */
+        REPLAY,
+        /** Otra petición con la misma clave todavía se está ejecutando */
+        IN_FLIGHT,
+        /** La clave ya se usó con un cuerpo distinto */
+        MISMATCH
+    }
+
+    private static final IdempotencyClaim NEW = new IdempotencyClaim(Outcome.NEW, null);
+    private static final IdempotencyClaim IN_FLIGHT = new IdempotencyClaim(Outcome.IN_FLIGHT, null);
+    private static final IdempotencyClaim MISMATCH = new IdempotencyClaim(Outcome.MISMATCH, null);
+
+    private final Outcome outcome;
+    private final IdempotentResponse response;
+
+    private IdempotencyClaim(Outcome outcome, IdempotentResponse response) {
+        this.outcome = outcome;
+        this.response = response;
+    }
+
+    public static IdempotencyClaim claimed() {
+        return NEW;
+    }
+
+    public static IdempotencyClaim replay(IdempotentResponse response) {
+        return new IdempotencyClaim(Outcome.REPLAY, response);
+    }
+
+    public static IdempotencyClaim inFlight() {
+        return IN_FLIGHT;
+    }
+
+    public static IdempotencyClaim mismatch() {
+        return MISMATCH;
+    }
+
+    public Outcome getOutcome() { return outcome; }
+
+    public IdempotentResponse getResponse() { return response; }
+}
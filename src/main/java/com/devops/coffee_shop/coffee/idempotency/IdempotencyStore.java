@@ -0,0 +1,23 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+/**
+ * Almacén de Idempotency-Keys. Las claves se identifican por alcance (por ejemplo "orders") y valor;
+ * el fingerprint identifica el cuerpo de la petición original.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Reserva la clave si es nueva (marcándola como en curso) o informa su estado actual
+     */
+    IdempotencyClaim claim(String scope, String key, String fingerprint);
+
+    /**
+     * Guarda la respuesta de una clave reservada; queda disponible hasta que expire
+     */
+    void complete(String scope, String key, String fingerprint, IdempotentResponse response);
+
+    /**
+     * Libera una clave reservada sin respuesta (la petición falló y puede reintentarse)
+     */
+    void release(String scope, String key);
+}
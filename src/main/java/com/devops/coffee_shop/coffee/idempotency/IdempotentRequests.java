@@ -0,0 +1,218 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una petición POST respetando el header Idempotency-Key: la primera petición con una clave
+ * se ejecuta y su respuesta se guarda; los reintentos con la misma clave y el mismo cuerpo reciben
+ * esa respuesta sin volver a ejecutarse. Los DTOs se guardan como árbol JSON y en el reintento se
+ * vuelven a escribir con el formato que negocie esa petición (JSON, CBOR o Smile).
+ */
+@Component
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter inFlight;
+    private final Counter mismatches;
+
+    public IdempotentRequests(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.hits = requests(registry, "hit");
+        this.misses = requests(registry, "miss");
+        this.inFlight = requests(registry, "in_flight");
+        this.mismatches = requests(registry, "mismatch");
+    }
+
+    /**
+     * Ejecuta action salvo que la clave ya tenga una respuesta guardada. Sin clave, simplemente ejecuta action.
+     * Solo se guardan las respuestas menores a 500; ante errores del servidor la clave se libera.
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object requestBody, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        ResponseEntity<?> invalid = validateKey(key);
+        if (invalid != null) {
+            return invalid;
+        }
+
+        String fingerprint = fingerprint(requestBody);
+        ResponseEntity<?> existing = resolve(store.claim(scope, key, fingerprint));
+        if (existing != null) {
+            return existing;
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            store.release(scope, key);
+            throw e;
+        }
+        return finish(scope, key, fingerprint, response);
+    }
+
+    /**
+     * Igual que execute para handlers reactivos. El almacén puede ser JDBC (bloqueante):
+     * sus operaciones corren en boundedElastic para no ocupar el event loop.
+     */
+    public Mono<ResponseEntity<?>> executeReactive(String scope, String key, Object requestBody,
+                                                   Supplier<Mono<ResponseEntity<?>>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        ResponseEntity<?> invalid = validateKey(key);
+        if (invalid != null) {
+            return Mono.just(invalid);
+        }
+
+        String fingerprint = fingerprint(requestBody);
+        return Mono.fromCallable(() -> store.claim(scope, key, fingerprint))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(claim -> {
+                    ResponseEntity<?> existing = resolve(claim);
+                    if (existing != null) {
+                        return Mono.just(existing);
+                    }
+                    return action.get()
+                            .onErrorResume(e -> Mono.fromRunnable(() -> store.release(scope, key))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .then(Mono.error(e)))
+                            .flatMap(response -> Mono.<ResponseEntity<?>>fromCallable(
+                                            () -> finish(scope, key, fingerprint, response))
+                                    .subscribeOn(Schedulers.boundedElastic()));
+                });
+    }
+
+    private ResponseEntity<?> validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body("El header " + HEADER + " debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        return null;
+    }
+
+    /**
+     * Respuesta para una clave ya usada, o null si la petición se reservó y debe ejecutarse
+     */
+    private ResponseEntity<?> resolve(IdempotencyClaim claim) {
+        switch (claim.getOutcome()) {
+            case REPLAY:
+                hits.increment();
+                return replay(claim.getResponse());
+            case IN_FLIGHT:
+                inFlight.increment();
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Hay una petición en curso con la misma " + HEADER);
+            case MISMATCH:
+                mismatches.increment();
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body("La " + HEADER + " ya se usó con otro contenido");
+            default:
+                misses.increment();
+                return null;
+        }
+    }
+
+    private ResponseEntity<?> finish(String scope, String key, String fingerprint, ResponseEntity<?> response) {
+        if (response.getStatusCode().is5xxServerError()) {
+            store.release(scope, key);
+        } else {
+            store.complete(scope, key, fingerprint, capture(response));
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(IdempotentResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.getStatus())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.getLocation() != null) {
+            builder.location(URI.create(stored.getLocation()));
+        }
+        if (stored.getContentType() == null) {
+            return builder.build();
+        }
+        MediaType contentType = MediaType.parseMediaType(stored.getContentType());
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            // Sin Content-Type fijo: el conversor que elija el Accept del reintento serializa el árbol
+            return builder.body(fromJson(stored.getBody()));
+        }
+        return builder.contentType(contentType).body(stored.getBody());
+    }
+
+    private IdempotentResponse capture(ResponseEntity<?> response) {
+        Object body = response.getBody();
+        URI location = response.getHeaders().getLocation();
+        String contentType;
+        String serialized;
+        if (body == null) {
+            contentType = null;
+            serialized = null;
+        } else if (body instanceof String text) {
+            contentType = MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8";
+            serialized = text;
+        } else {
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+            serialized = toJson(body);
+        }
+        return new IdempotentResponse(response.getStatusCode().value(), contentType,
+                location != null ? location.toString() : null, serialized);
+    }
+
+    private String fingerprint(Object requestBody) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(requestBody));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular el fingerprint de la petición", e);
+        }
+    }
+
+    private JsonNode fromJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("coffee_idempotency_requests_total")
+                .description("Peticiones con Idempotency-Key según su resultado")
+                .tag("result", result)
+                .register(registry);
+    }
+}
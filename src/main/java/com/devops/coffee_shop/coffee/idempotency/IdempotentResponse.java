@@ -0,0 +1,27 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+/**
+ * Respuesta guardada para una Idempotency-Key, devuelta tal cual en los reintentos
+ */
+public class IdempotentResponse {
+
+    private final int status;
+    private final String contentType;
+    private final String location;
+    private final String body;
+
+    public IdempotentResponse(int status, String contentType, String location, String body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+    }
+
+    public int getStatus() { return status; }
+
+    public String getContentType() { return contentType; }
+
+    public String getLocation() { return location; }
+
+    public String getBody() { return body; }
+}
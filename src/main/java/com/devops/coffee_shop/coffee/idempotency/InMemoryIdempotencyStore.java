@@ -0,0 +1,95 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Idempotency-Keys en memoria: LRU acotado a max-entries y con vencimiento por TTL.
+ * Solo protege los reintentos que llegan a la misma instancia.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final long inFlightTimeoutMillis;
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(MeterRegistry registry,
+                                    @Value("${coffee.idempotency.max-entries:100000}") int maxEntries,
+                                    @Value("${coffee.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${coffee.idempotency.in-flight-timeout:30s}") Duration inFlightTimeout) {
+        this.ttlMillis = ttl.toMillis();
+        this.inFlightTimeoutMillis = inFlightTimeout.toMillis();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        Gauge.builder("coffee_idempotency_keys", this, InMemoryIdempotencyStore::size)
+                .description("Idempotency-Keys guardadas en memoria")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized IdempotencyClaim claim(String scope, String key, String fingerprint) {
+        String id = scope + ":" + key;
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(id);
+        if (entry == null || entry.expiresAt <= now) {
+            entries.put(id, new Entry(fingerprint, null, now + inFlightTimeoutMillis));
+            return IdempotencyClaim.claimed();
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            return IdempotencyClaim.mismatch();
+        }
+        return entry.response == null ? IdempotencyClaim.inFlight() : IdempotencyClaim.replay(entry.response);
+    }
+
+    @Override
+    public synchronized void complete(String scope, String key, String fingerprint, IdempotentResponse response) {
+        entries.put(scope + ":" + key, new Entry(fingerprint, response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    @Override
+    public synchronized void release(String scope, String key) {
+        entries.remove(scope + ":" + key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${coffee.idempotency.purge-interval:1m}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAt <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final IdempotentResponse response;
+        private final long expiresAt;
+
+        private Entry(String fingerprint, IdempotentResponse response, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
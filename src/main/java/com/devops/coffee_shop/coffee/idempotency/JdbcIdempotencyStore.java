@@ -0,0 +1,94 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+import com.devops.coffee_shop.coffee.domain.IdempotencyKey;
+import com.devops.coffee_shop.coffee.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Idempotency-Keys en la tabla idempotency_keys, compartidas entre todas las instancias.
+ * Cada operación usa su propia transacción, independiente de la de la petición.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+
+    public JdbcIdempotencyStore(IdempotencyKeyRepository repository, PlatformTransactionManager transactionManager,
+                                @Value("${coffee.idempotency.ttl:24h}") Duration ttl,
+                                @Value("${coffee.idempotency.in-flight-timeout:30s}") Duration inFlightTimeout) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+    }
+
+    @Override
+    public IdempotencyClaim claim(String scope, String key, String fingerprint) {
+        String id = scope + ":" + key;
+        Optional<IdempotencyKey> existing = transactionTemplate.execute(status -> repository.findById(id));
+        if (existing.isPresent() && existing.get().getExpiresAt().isAfter(Instant.now())) {
+            return describe(existing.get(), fingerprint);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                existing.ifPresent(repository::delete);
+                repository.saveAndFlush(new IdempotencyKey(id, fingerprint, Instant.now().plus(inFlightTimeout)));
+            });
+            return IdempotencyClaim.claimed();
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia reservó la misma clave entre la lectura y el INSERT
+            return transactionTemplate.execute(status -> repository.findById(id))
+                    .map(record -> describe(record, fingerprint))
+                    .orElse(IdempotencyClaim.inFlight());
+        }
+    }
+
+    @Override
+    public void complete(String scope, String key, String fingerprint, IdempotentResponse response) {
+        transactionTemplate.executeWithoutResult(status -> repository.findById(scope + ":" + key).ifPresent(record -> {
+            record.setResponseStatus(response.getStatus());
+            record.setResponseContentType(response.getContentType());
+            record.setResponseLocation(response.getLocation());
+            record.setResponseBody(response.getBody());
+            record.setExpiresAt(Instant.now().plus(ttl));
+        }));
+    }
+
+    @Override
+    public void release(String scope, String key) {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteById(scope + ":" + key));
+    }
+
+    @Scheduled(fixedDelayString = "${coffee.idempotency.purge-interval:1m}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(Instant.now()));
+    }
+
+    private IdempotencyClaim describe(IdempotencyKey record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return IdempotencyClaim.mismatch();
+        }
+        if (record.getResponseStatus() == null) {
+            return IdempotencyClaim.inFlight();
+        }
+        return IdempotencyClaim.replay(new IdempotentResponse(record.getResponseStatus(),
+                record.getResponseContentType(), record.getResponseLocation(), record.getResponseBody()));
+    }
+}
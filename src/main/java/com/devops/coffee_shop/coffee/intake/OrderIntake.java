@@ -0,0 +1,256 @@
+package com.devops.coffee_shop.coffee.intake;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingreso asíncrono de pedidos (coffee.orders.intake.mode=async): el pedido se valida, recibe su ID
+ * y se encola; un hilo escritor lo inserta luego en lotes. Un pedido aceptado puede tardar unos
+ * milisegundos en aparecer en las consultas. Mientras la base de datos no responde el escritor reintenta
+ * el mismo lote sin tomar más de la cola, que al llenarse hace responder 429.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.orders.intake.mode", havingValue = "async")
+public class OrderIntake implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntake.class);
+
+    // Arranca antes y se detiene después del servidor web, para vaciar la cola cuando ya no entran pedidos
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long INITIAL_BACKOFF_MILLIS = 200;
+
+    private final OrderService orderService;
+    private final BlockingQueue<Order> queue;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long maxBackoffMillis;
+    private final long shutdownTimeoutMillis;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    // Lo activa stop() al vencer shutdown-timeout, antes de interrumpir al escritor
+    private volatile boolean abandoning;
+    private Thread writer;
+
+    public OrderIntake(OrderService orderService, MeterRegistry registry,
+                       @Value("${coffee.orders.intake.queue-capacity:10000}") int queueCapacity,
+                       @Value("${coffee.orders.intake.batch-size:500}") int batchSize,
+                       @Value("${coffee.orders.intake.poll-interval:50ms}") Duration pollInterval,
+                       @Value("${coffee.orders.intake.max-backoff:5s}") Duration maxBackoff,
+                       @Value("${coffee.orders.intake.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.pollMillis = pollInterval.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.shutdownTimeoutMillis = shutdownTimeout.toMillis();
+
+        Gauge.builder("coffee_order_intake_queue_depth", queue, BlockingQueue::size)
+                .description("Pedidos aceptados pendientes de escribir en la base de datos")
+                .register(registry);
+        this.flushTimer = Timer.builder("coffee_order_intake_flush")
+                .description("Tiempo de escritura de cada lote de pedidos aceptados")
+                .register(registry);
+        this.rejectedCounter = Counter.builder("coffee_order_intake_rejected_total")
+                .description("Pedidos rechazados por cola de ingreso llena")
+                .register(registry);
+        this.failedCounter = Counter.builder("coffee_order_intake_failed_total")
+                .description("Pedidos aceptados descartados: rechazados por sus datos o sin escribir al apagar")
+                .register(registry);
+    }
+
+    /**
+     * Valida y encola el pedido. Lanza IllegalArgumentException si es inválido y
+     * OrderIntakeFullException si la cola está llena.
+     */
+    public OrderDto submit(OrderDto dto) {
+        if (!accepting) {
+            rejectedCounter.increment();
+            throw new OrderIntakeFullException("El ingreso de pedidos se está cerrando");
+        }
+        Order order = orderService.prepareOrder(dto);
+        if (!queue.offer(order)) {
+            rejectedCounter.increment();
+            throw new OrderIntakeFullException("Demasiados pedidos en espera, reintente en unos segundos");
+        }
+        dto.setId(order.getId());
+        dto.setStatus(order.getStatus());
+        dto.setCreatedAt(order.getCreatedAt());
+        return dto;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        accepting = true;
+        writer = new Thread(this::writeLoop, "order-intake-writer");
+        writer.start();
+    }
+
+    /**
+     * Deja de aceptar pedidos y espera a que el escritor vacíe la cola. Si no termina en
+     * shutdown-timeout (base de datos caída) se lo interrumpe y abandona lo pendiente.
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        try {
+            writer.join(shutdownTimeoutMillis);
+            if (writer.isAlive()) {
+                abandoning = true;
+                writer.interrupt();
+                writer.join(shutdownTimeoutMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.error("El escritor de pedidos no terminó; {} pedidos aceptados siguen en la cola", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void writeLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            Order first;
+            try {
+                first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Solo stop() interrumpe con intención de abandonar; cualquier otra interrupción se ignora
+                if (abandoning) {
+                    break;
+                }
+                continue;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            if (!flush(batch)) {
+                break;
+            }
+            batch.clear();
+        }
+        int abandoned = batch.size() + queue.size();
+        if (abandoned > 0) {
+            failedCounter.increment(abandoned);
+            log.error("Apagado sin poder escribir en la base de datos: {} pedidos aceptados se descartaron", abandoned);
+        }
+    }
+
+    /**
+     * Escribe el lote, reintentando con espera creciente (hasta max-backoff) mientras falle la conexión.
+     * Si la base de datos rechaza el lote por sus datos se reintenta fila por fila y solo se descartan
+     * las filas inválidas. Al terminar el lote queda vacío salvo que el apagado lo abandone (devuelve false).
+     */
+    private boolean flush(List<Order> batch) {
+        long backoff = Math.min(INITIAL_BACKOFF_MILLIS, maxBackoffMillis);
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                orderService.persistAcceptedOrders(batch);
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                batch.clear();
+                return true;
+            } catch (DuplicateKeyException e) {
+                if (batch.size() == 1) {
+                    // Los IDs se asignan al aceptar: un ID repetido es un pedido que ya se escribió
+                    // en un intento cuya confirmación no llegó
+                    log.warn("El pedido {} ya estaba escrito", batch.get(0).getId());
+                    batch.clear();
+                    return true;
+                }
+                return flushOneByOne(batch);
+            } catch (DataIntegrityViolationException e) {
+                if (batch.size() == 1) {
+                    Order order = batch.get(0);
+                    failedCounter.increment();
+                    log.error("Pedido {} descartado, la base de datos rechazó sus datos (cliente {}, bebida {}, cantidad {})",
+                            order.getId(), order.getCustomerName(), order.getDrink(), order.getQuantity(), e);
+                    batch.clear();
+                    return true;
+                }
+                log.warn("Lote de {} pedidos rechazado por sus datos, se reintenta fila por fila", batch.size(), e);
+                return flushOneByOne(batch);
+            } catch (RuntimeException e) {
+                log.warn("Error escribiendo lote de {} pedidos, reintento en {} ms", batch.size(), backoff, e);
+                if (!pause(backoff)) {
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    private boolean flushOneByOne(List<Order> batch) {
+        Iterator<Order> pending = batch.iterator();
+        while (pending.hasNext()) {
+            List<Order> single = new ArrayList<>(1);
+            single.add(pending.next());
+            if (!flush(single)) {
+                return false;
+            }
+            pending.remove();
+        }
+        return true;
+    }
+
+    /**
+     * Espera el tiempo completo aunque el hilo sea interrumpido, salvo que sea stop() quien
+     * interrumpe para abandonar (devuelve false)
+     */
+    private boolean pause(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                if (abandoning) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.devops.coffee_shop.coffee.intake;
+
+/**
+ * La cola de ingreso de pedidos está llena (o cerrando) y no acepta más pedidos por ahora
+ */
+public class OrderIntakeFullException extends IllegalStateException {
+
+    public OrderIntakeFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,96 @@
+package com.devops.coffee_shop.coffee.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo AIMD (additive increase, multiplicative decrease) guiado por latencia:
+ * mientras las respuestas llegan bajo el umbral y el límite se está usando, sube de a uno;
+ * ante una respuesta lenta o con error se multiplica por backoffRatio.
+ * Solo se reduce una vez por "ventana": las respuestas lentas de peticiones que empezaron antes de la
+ * última reducción ya se contaron en ella, así una ráfaga de lentitud no lleva el límite al mínimo de golpe.
+ */
+public class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Límites inválidos: se requiere 1 <= min <= inicial <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio debe estar entre 0 y 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserva un lugar si hay capacidad. Quien obtiene true debe llamar a onComplete al terminar.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar y ajusta el límite según la latencia observada
+     *
+     * @param startNanos System.nanoTime() al empezar la petición
+     * @param failed     true si la petición terminó con error del servidor
+     */
+    public void onComplete(long startNanos, boolean failed) {
+        long now = System.nanoTime();
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (failed || now - startNanos > latencyThresholdNanos) {
+            decrease(startNanos, now);
+        } else if (inFlightBefore * 2 >= getLimit()) {
+            // Solo crece si se está usando: un límite alto nunca probado no dice nada de la capacidad real
+            increase();
+        }
+    }
+
+    /**
+     * Libera el lugar sin ajustar el límite (peticiones cuya duración no refleja la carga, como las asíncronas)
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(maxLimit, limit + 1);
+    }
+
+    private synchronized void decrease(long startNanos, long now) {
+        if (startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,142 @@
+package com.devops.coffee_shop.coffee.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compartimentos (bulkheads) por grupo de controladores: cada grupo tiene su propio límite de peticiones
+ * concurrentes, adaptado por latencia (AimdLimiter). Lo que excede el límite se rechaza enseguida con 503 y
+ * Retry-After en lugar de acumularse en los hilos de Tomcat y el pool de conexiones compartidos,
+ * así un pico en el catálogo no deja sin capacidad al ingreso de pedidos.
+ * Quedan fuera los /health, el stream SSE y las exportaciones NDJSON (asíncronas y de larga duración).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "coffee.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String[] GROUPS = {"orders", "products", "clients"};
+
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(Environment environment, MeterRegistry registry) {
+        Duration retryAfter = DurationStyle.detectAndParse(environment.getProperty("coffee.limiter.retry-after", "1s"));
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        for (String name : GROUPS) {
+            AimdLimiter limiter = new AimdLimiter(
+                    property(environment, name, "initial-limit", 20),
+                    property(environment, name, "min-limit", 2),
+                    property(environment, name, "max-limit", 100),
+                    DurationStyle.detectAndParse(groupProperty(environment, name, "latency-threshold", "250ms")).toNanos(),
+                    Double.parseDouble(groupProperty(environment, name, "backoff-ratio", "0.9")));
+            groups.put("/api/" + name, new Group(name, limiter, registry));
+        }
+    }
+
+    // coffee.limiter.<grupo>.<clave>, o coffee.limiter.<clave> como valor común a todos los grupos
+    private static String groupProperty(Environment environment, String group, String key, String defaultValue) {
+        return environment.getProperty("coffee.limiter." + group + "." + key,
+                environment.getProperty("coffee.limiter." + key, defaultValue));
+    }
+
+    private static int property(Environment environment, String group, String key, int defaultValue) {
+        return Integer.parseInt(groupProperty(environment, group, key, String.valueOf(defaultValue)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return groupOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Group group = groupOf(request);
+        if (!group.limiter.tryAcquire()) {
+            group.rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("Servicio sobrecargado, reintente en " + retryAfterSeconds + "s");
+            return;
+        }
+        group.accepted.increment();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                group.limiter.release();
+            } else {
+                group.limiter.onComplete(start, failed);
+            }
+        }
+    }
+
+    private Group groupOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/health") || path.endsWith("/stream") || path.endsWith("/export")) {
+            return null;
+        }
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            String prefix = entry.getKey();
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static final class Group {
+        private final AimdLimiter limiter;
+        private final Counter accepted;
+        private final Counter rejected;
+
+        private Group(String name, AimdLimiter limiter, MeterRegistry registry) {
+            this.limiter = limiter;
+            this.accepted = requests(registry, name, "accepted");
+            this.rejected = requests(registry, name, "rejected");
+            Gauge.builder("coffee_limiter_in_flight", limiter, AimdLimiter::getInFlight)
+                    .description("Peticiones en curso por grupo de controladores")
+                    .tag("group", name)
+                    .register(registry);
+            Gauge.builder("coffee_limiter_limit", limiter, AimdLimiter::getLimit)
+                    .description("Límite de concurrencia actual por grupo de controladores")
+                    .tag("group", name)
+                    .register(registry);
+        }
+
+        private static Counter requests(MeterRegistry registry, String group, String result) {
+            return Counter.builder("coffee_limiter_requests_total")
+                    .description("Peticiones admitidas o rechazadas (503) por el límite de concurrencia")
+                    .tag("group", group)
+                    .tag("result", result)
+                    .register(registry);
+        }
+    }
+}
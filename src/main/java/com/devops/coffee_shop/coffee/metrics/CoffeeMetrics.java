@@ -2,15 +2,23 @@ package com.devops.coffee_shop.coffee.metrics;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class CoffeeMetrics {
 
+    private final MeterRegistry registry;
     private final Counter ordersCreatedCounter;
     private final Counter ordersDeliveredCounter;
+    private final Counter catalogHitsCounter;
+    private final Counter catalogMissesCounter;
+    private final Timer catalogRebuildTimer;
 
     public CoffeeMetrics(MeterRegistry registry) {
+        this.registry = registry;
         this.ordersCreatedCounter = Counter.builder("coffee_orders_created_total")
                 .description("Cantidad total de pedidos creados")
                 .register(registry);
@@ -18,13 +26,55 @@ public class CoffeeMetrics {
         this.ordersDeliveredCounter = Counter.builder("coffee_orders_delivered_total")
                 .description("Cantidad total de pedidos entregados")
                 .register(registry);
+
+        this.catalogHitsCounter = Counter.builder("coffee_catalog_requests_total")
+                .description("Lecturas del catálogo de productos en memoria")
+                .tag("result", "hit")
+                .register(registry);
+
+        this.catalogMissesCounter = Counter.builder("coffee_catalog_requests_total")
+                .description("Lecturas del catálogo de productos en memoria")
+                .tag("result", "miss")
+                .register(registry);
+
+        this.catalogRebuildTimer = Timer.builder("coffee_catalog_rebuild")
+                .description("Tiempo de reconstrucción del catálogo de productos en memoria")
+                .register(registry);
     }
 
     public void incrementOrdersCreated() {
         ordersCreatedCounter.increment();
     }
 
+    public void incrementOrdersCreated(int count) {
+        ordersCreatedCounter.increment(count);
+    }
+
     public void incrementOrdersDelivered() {
         ordersDeliveredCounter.increment();
     }
+
+    public void incrementCatalogHits() {
+        catalogHitsCounter.increment();
+    }
+
+    public void incrementCatalogMisses() {
+        catalogMissesCounter.increment();
+    }
+
+    public void recordCatalogRebuild(long nanos) {
+        catalogRebuildTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra un GET condicional: notModified indica si se respondió 304 sin cuerpo
+     */
+    public void recordConditionalGet(String endpoint, boolean notModified) {
+        Counter.builder("coffee_conditional_get_total")
+                .description("GET con ETag/Last-Modified por endpoint y resultado (304 o respuesta completa)")
+                .tag("endpoint", endpoint)
+                .tag("result", notModified ? "not_modified" : "full")
+                .register(registry)
+                .increment();
+    }
 }
@@ -0,0 +1,57 @@
+package com.devops.coffee_shop.coffee.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tiempo de cada método público de ProductService, ClientService y OrderService como coffee_service_seconds
+ * (tags service, method, exception). Histograma y buckets SLO se configuran con management.metrics.distribution.*.
+ * Va por fuera de @Transactional: el tiempo incluye el commit. Las llamadas internas del propio servicio no se miden.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceTimingAspect {
+
+    private final MeterRegistry registry;
+    // Timer de las llamadas sin excepción por método: evita armar el Meter.Id en cada llamada
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.devops.coffee_shop.coffee.service.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = joinPoint.proceed();
+            sample.stop(timers.computeIfAbsent(method, m -> timer(m, "none")));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer(method, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(Method method, String exception) {
+        return Timer.builder("coffee_service")
+                .description("Tiempo de los métodos públicos de los servicios")
+                .tag("service", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.devops.coffee_shop.coffee.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Publica las sentencias JDBC y filas de cada petición a /api como coffee_sql_statements_per_request y
+ * coffee_sql_rows_per_request, por método HTTP y plantilla de ruta: un N+1 se ve como un endpoint con
+ * decenas de sentencias por petición. Va después del límite de concurrencia: los 503 no ejecutan SQL.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(name = "coffee.metrics.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMetrics sqlMetrics;
+    private final MeterRegistry registry;
+
+    public SqlMetricsFilter(SqlStatementMetrics sqlMetrics, MeterRegistry registry) {
+        this.sqlMetrics = sqlMetrics;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementMetrics.RequestCounts counts = sqlMetrics.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            sqlMetrics.end();
+            record(request, counts);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementMetrics.RequestCounts counts) {
+        // Plantilla (/api/orders/{id}) y no la URI real, para no crear una serie por ID
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("coffee_sql_statements_per_request")
+                .description("Sentencias JDBC por petición HTTP")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(counts.getStatements());
+        if (sqlMetrics.isCountingRowsRead()) {
+            rows(request.getMethod(), uri, "read").record(counts.getRowsRead());
+        }
+        rows(request.getMethod(), uri, "written").record(counts.getRowsWritten());
+    }
+
+    private DistributionSummary rows(String method, String uri, String operation) {
+        return DistributionSummary.builder("coffee_sql_rows_per_request")
+                .description("Filas leídas o escritas por petición HTTP")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("operation", operation)
+                .register(registry);
+    }
+}
@@ -0,0 +1,138 @@
+package com.devops.coffee_shop.coffee.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Listener de datasource-proxy (SqlMetricsConfig envuelve el DataSource): cuenta las sentencias JDBC por tipo en
+ * coffee_sql_statements_total y acumula sentencias y filas leídas/escritas de la petición HTTP en curso del hilo,
+ * que SqlMetricsFilter publica al terminar. Lo ejecutado fuera de una petición (escritor por lotes, tareas
+ * programadas, la parte asíncrona de las exportaciones) solo suma al contador total.
+ * Las filas leídas se cuentan solo con coffee.metrics.sql.rows-read.enabled (ver SqlMetricsConfig).
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.metrics.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMetrics implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<RequestCounts> CURRENT = new ThreadLocal<>();
+
+    private final Map<QueryType, Counter> statements = new EnumMap<>(QueryType.class);
+    private final boolean countingRowsRead;
+
+    public SqlStatementMetrics(MeterRegistry registry,
+                               @Value("${coffee.metrics.sql.rows-read.enabled:false}") boolean countingRowsRead) {
+        this.countingRowsRead = countingRowsRead;
+        for (QueryType type : QueryType.values()) {
+            statements.put(type, Counter.builder("coffee_sql_statements_total")
+                    .description("Sentencias JDBC ejecutadas por tipo")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    public boolean isCountingRowsRead() {
+        return countingRowsRead;
+    }
+
+    /**
+     * Empieza a acumular las sentencias del hilo actual; end() debe llamarse en un finally
+     */
+    public RequestCounts begin() {
+        RequestCounts counts = new RequestCounts();
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo query : queryInfoList) {
+            statements.get(QueryUtils.getQueryType(query.getQuery())).increment();
+        }
+        RequestCounts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements += queryInfoList.size();
+            counts.rowsWritten += updateCount(execInfo.getResult());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    /**
+     * Filas leídas: cada ResultSet.next() que devuelve true (solo se llama con countingRowsRead)
+     */
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            RequestCounts counts = CURRENT.get();
+            if (counts != null) {
+                counts.rowsRead++;
+            }
+        }
+    }
+
+    // executeUpdate devuelve int/long y executeBatch int[]/long[]; los negativos (SUCCESS_NO_INFO) no se cuentan
+    private static long updateCount(Object result) {
+        long rows = 0;
+        if (result instanceof Integer || result instanceof Long) {
+            rows = ((Number) result).longValue();
+        } else if (result instanceof int[] counts) {
+            for (int count : counts) {
+                rows += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return Math.max(rows, 0);
+    }
+
+    /**
+     * Sentencias y filas de una petición; solo la modifica el hilo que la atiende
+     */
+    public static final class RequestCounts {
+        private long statements;
+        private long rowsRead;
+        private long rowsWritten;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+    }
+}
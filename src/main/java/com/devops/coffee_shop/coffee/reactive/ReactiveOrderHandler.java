@@ -0,0 +1,127 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.idempotency.IdempotentRequests;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handlers del servidor reactivo: mismas respuestas (códigos y cuerpos) que OrderController para
+ * crear, consultar y cambiar el estado de pedidos, más el stream SSE.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrderHandler {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<OrderDto>> SSE_TYPE = new ParameterizedTypeReference<>() { };
+
+    private final ReactiveOrderService orderService;
+    private final ReactiveOrderStream orderStream;
+    private final IdempotentRequests idempotentRequests;
+
+    public ReactiveOrderHandler(ReactiveOrderService orderService, ReactiveOrderStream orderStream,
+                                IdempotentRequests idempotentRequests) {
+        this.orderService = orderService;
+        this.orderStream = orderStream;
+        this.idempotentRequests = idempotentRequests;
+    }
+
+    /**
+     * Crea un pedido; con el header Idempotency-Key los reintentos devuelven la respuesta original
+     */
+    public Mono<ServerResponse> createOrder(ServerRequest request) {
+        String idempotencyKey = request.headers().firstHeader(IdempotentRequests.HEADER);
+        return request.bodyToMono(OrderDto.class)
+                .flatMap(dto -> idempotentRequests.executeReactive("orders", idempotencyKey, dto, () -> submitOrder(dto)))
+                .switchIfEmpty(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.badRequest().body("El pedido es obligatorio")))
+                .flatMap(ReactiveOrderHandler::toServerResponse);
+    }
+
+    private Mono<ResponseEntity<?>> submitOrder(OrderDto dto) {
+        return orderService.createOrder(dto)
+                .<ResponseEntity<?>>map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    public Mono<ServerResponse> getOrderById(ServerRequest request) {
+        Long id = orderId(request);
+        if (id == null) {
+            return invalidId(request);
+        }
+        return orderService.getOrderById(id)
+                .flatMap(order -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(order))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> updateStatus(ServerRequest request) {
+        Long id = orderId(request);
+        if (id == null) {
+            return invalidId(request);
+        }
+        OrderStatus status;
+        try {
+            status = OrderStatus.valueOf(request.pathVariable("status"));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Estado inválido: " + request.pathVariable("status"));
+        }
+        return orderService.updateStatus(id, status)
+                .flatMap(updated -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(updated))
+                .onErrorResume(IllegalStateException.class,
+                        e -> ServerResponse.status(HttpStatus.CONFLICT).bodyValue(e.getMessage()))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue(e.getMessage()));
+    }
+
+    // La ruta exige \d+, pero un ID fuera de rango de long no se puede convertir: 400, como en el servidor servlet
+    private static Long orderId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Mono<ServerResponse> invalidId(ServerRequest request) {
+        return ServerResponse.badRequest().bodyValue("ID de pedido inválido: " + request.pathVariable("id"));
+    }
+
+    /**
+     * Stream SSE con los pedidos creados y los cambios de estado, opcionalmente filtrado por estado
+     * (por ejemplo ?status=READY para la pantalla de retiro: recibe los pedidos que pasan a READY y los que salen)
+     */
+    public Mono<ServerResponse> streamOrders(ServerRequest request) {
+        List<OrderStatus> statuses = new ArrayList<>();
+        try {
+            for (String value : request.queryParams().getOrDefault("status", List.of())) {
+                for (String status : value.split(",")) {
+                    if (!status.isBlank()) {
+                        statuses.add(OrderStatus.valueOf(status.trim()));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("Estado inválido en status: " + request.queryParams().get("status"));
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(orderStream.subscribe(statuses), SSE_TYPE);
+    }
+
+    private static Mono<ServerResponse> toServerResponse(ResponseEntity<?> response) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()));
+        return response.getBody() == null ? builder.build() : builder.bodyValue(response.getBody());
+    }
+}
@@ -0,0 +1,109 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acceso a la tabla orders con R2DBC para el servidor reactivo de pedidos
+ */
+@Repository
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrderRepository {
+
+    private static final String COLUMNS = "id, customer_name, drink, quantity, status, created_at";
+
+    private final DatabaseClient client;
+    private final String nextSequenceValue;
+    private final AtomicReference<IdBlock> ids = new AtomicReference<>(new IdBlock(0, 0));
+
+    public ReactiveOrderRepository(DatabaseClient client) {
+        this.client = client;
+        this.nextSequenceValue = client.getConnectionFactory().getMetadata().getName().contains("H2")
+                ? "select next value for orders_seq"
+                : "select nextval('orders_seq')";
+    }
+
+    /**
+     * Siguiente ID de pedido con el mismo esquema pooled-lo que usa Hibernate: cada valor de orders_seq es el
+     * inicio de un bloque de Order.ID_ALLOCATION_SIZE IDs, así los dos caminos nunca repiten IDs.
+     * Si dos peticiones agotan el bloque a la vez cada una toma uno nuevo: se pierden IDs, no se repiten.
+     */
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock block = ids.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return Mono.just(id);
+            }
+            return client.sql(nextSequenceValue)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(start -> {
+                        ids.set(new IdBlock(start + 1, start + Order.ID_ALLOCATION_SIZE));
+                        return start;
+                    });
+        });
+    }
+
+    public Mono<OrderDto> insert(OrderDto order) {
+        return client.sql("insert into orders (" + COLUMNS + ")"
+                        + " values (:id, :customerName, :drink, :quantity, :status, :createdAt)")
+                .bind("id", order.getId())
+                .bind("customerName", order.getCustomerName())
+                .bind("drink", order.getDrink())
+                .bind("quantity", order.getQuantity())
+                .bind("status", order.getStatus().name())
+                .bind("createdAt", order.getCreatedAt())
+                .then()
+                .thenReturn(order);
+    }
+
+    public Mono<OrderDto> findById(Long id) {
+        return client.sql("select " + COLUMNS + " from orders where id = :id")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::toDto)
+                .one();
+    }
+
+    /**
+     * UPDATE condicionado al estado actual (compare-and-set); retorna las filas modificadas
+     */
+    public Mono<Long> updateStatusIfCurrent(Long id, OrderStatus expected, OrderStatus status) {
+        return client.sql("update orders set status = :status where id = :id and status = :expected")
+                .bind("status", status.name())
+                .bind("id", id)
+                .bind("expected", expected.name())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static OrderDto toDto(Readable row) {
+        return new OrderDto(
+                row.get("id", Long.class),
+                row.get("customer_name", String.class),
+                row.get("drink", String.class),
+                row.get("quantity", Integer.class),
+                OrderStatus.valueOf(row.get("status", String.class)),
+                row.get("created_at", LocalDateTime.class));
+    }
+
+    private static final class IdBlock {
+        private final AtomicLong next;
+        private final long end;
+
+        private IdBlock(long next, long end) {
+            this.next = new AtomicLong(next);
+            this.end = end;
+        }
+    }
+}
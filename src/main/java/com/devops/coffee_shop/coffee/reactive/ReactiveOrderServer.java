@@ -0,0 +1,114 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Servidor HTTP no bloqueante (Reactor Netty) para el camino caliente de pedidos, en su propio puerto junto al
+ * Tomcat de siempre: unos pocos hilos de event loop atienden miles de conexiones SSE y altas de pedidos.
+ * El resto de la API (catálogo, clientes, listados, exportaciones) sigue en el stack servlet.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrderServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOrderServer.class);
+
+    private final ReactiveOrderHandler handler;
+    private final ReactiveOrderStream orderStream;
+    private final ObjectMapper objectMapper;
+    private final int port;
+    private final Duration shutdownTimeout;
+
+    private volatile DisposableServer server;
+
+    public ReactiveOrderServer(ReactiveOrderHandler handler,
+                               ReactiveOrderStream orderStream,
+                               ObjectMapper objectMapper,
+                               @Value("${coffee.reactive.port:8081}") int port,
+                               @Value("${coffee.reactive.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.handler = handler;
+        this.orderStream = orderStream;
+        this.objectMapper = objectMapper;
+        this.port = port;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        // /stream antes que /{id}; el ID solo admite dígitos, como Long en OrderController
+        return RouterFunctions.route()
+                .POST("/api/orders", handler::createOrder)
+                .GET("/api/orders/stream", handler::streamOrders)
+                .GET("/api/orders/{id:\\d+}", handler::getOrderById)
+                .PATCH("/api/orders/{id:\\d+}/status/{status}", handler::updateStatus)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        // Mismo ObjectMapper que Spring MVC (spring.jackson.*) y CORS abierto como @CrossOrigin en OrderController
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOrigin("*");
+        cors.addAllowedMethod("*");
+        cors.addAllowedHeader("*");
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/api/**", cors);
+
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .webFilter(new CorsWebFilter(corsSource))
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes(), strategies);
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Servidor reactivo de pedidos escuchando en el puerto {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            // Primero se cierran los streams SSE: si no, el apagado esperaría a que expiren
+            orderStream.complete();
+            current.disposeNow(shutdownTimeout);
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Puerto en el que escucha (el real si se configuró 0)
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
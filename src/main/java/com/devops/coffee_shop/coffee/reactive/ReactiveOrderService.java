@@ -0,0 +1,83 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Camino caliente de pedidos (crear, consultar, cambiar estado) sin bloquear: mismas reglas que OrderService.
+ * Cada sentencia se confirma sola, por eso los eventos se publican fuera de transacción y los listeners
+ * (contadores, rollups, streams) los procesan enseguida.
+ */
+@Service
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrderService {
+
+    private final ReactiveOrderRepository orderRepository;
+    private final CoffeeMetrics coffeeMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveOrderService(ReactiveOrderRepository orderRepository, CoffeeMetrics coffeeMetrics,
+                                ApplicationEventPublisher eventPublisher) {
+        this.orderRepository = orderRepository;
+        this.coffeeMetrics = coffeeMetrics;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Crea el pedido; si no es válido termina con IllegalArgumentException
+     */
+    public Mono<OrderDto> createOrder(OrderDto dto) {
+        String error = OrderService.validateOrder(dto);
+        if (error != null) {
+            return Mono.error(new IllegalArgumentException(error));
+        }
+        return orderRepository.nextId()
+                .map(id -> new OrderDto(id, dto.getCustomerName(), dto.getDrink(), dto.getQuantity(),
+                        OrderStatus.NEW, LocalDateTime.now()))
+                .flatMap(orderRepository::insert)
+                .doOnNext(created -> {
+                    coffeeMetrics.incrementOrdersCreated();
+                    eventPublisher.publishEvent(OrderEvent.created(created));
+                });
+    }
+
+    public Mono<OrderDto> getOrderById(Long id) {
+        return orderRepository.findById(id);
+    }
+
+    /**
+     * Cambia el estado con un UPDATE condicionado al estado leído. Termina con IllegalArgumentException si el
+     * pedido no existe e IllegalStateException si la transición no es válida o el pedido cambió concurrentemente.
+     */
+    public Mono<OrderDto> updateStatus(Long id, OrderStatus status) {
+        return orderRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Pedido no encontrado: " + id)))
+                .flatMap(order -> {
+                    OrderStatus previous = order.getStatus();
+                    IllegalStateException invalid = new IllegalStateException("Transición no permitida para el pedido "
+                            + id + ": " + previous + " -> " + status);
+                    if (!previous.canTransitionTo(status)) {
+                        return Mono.error(invalid);
+                    }
+                    return orderRepository.updateStatusIfCurrent(id, previous, status)
+                            .flatMap(updated -> updated == 0 ? Mono.error(invalid) : Mono.just(order))
+                            .doOnNext(updated -> {
+                                // Solo READY puede pasar a DELIVERED, por lo que cada pedido se cuenta una única vez
+                                if (status == OrderStatus.DELIVERED) {
+                                    coffeeMetrics.incrementOrdersDelivered();
+                                }
+                                updated.setStatus(status);
+                                eventPublisher.publishEvent(OrderEvent.statusChanged(updated, previous));
+                            });
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de pedidos del servidor reactivo: el equivalente de OrderEventBroadcaster sin un hilo por
+ * conexión. Recibe los eventos de ambos servidores; cada suscriptor tiene un buffer acotado y, si se llena
+ * porque el cliente no consume a tiempo, se lo desconecta.
+ */
+@Component
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrderStream {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveOrderStream.class);
+
+    private static final ServerSentEvent<OrderDto> HEARTBEAT = ServerSentEvent.<OrderDto>builder()
+            .comment("keepalive")
+            .build();
+
+    // directBestEffort: un suscriptor sin demanda no frena a los demás (su buffer propio decide si se lo corta)
+    private final Sinks.Many<Emitted> events = Sinks.many().multicast().directBestEffort();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final Counter droppedSubscribers;
+
+    public ReactiveOrderStream(MeterRegistry registry,
+                               @Value("${coffee.orders.stream.buffer-size:256}") int bufferSize,
+                               @Value("${coffee.orders.stream.timeout:30m}") Duration timeout,
+                               @Value("${coffee.orders.stream.heartbeat:15s}") Duration heartbeat) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        Gauge.builder("coffee_reactive_order_stream_subscribers", subscribers, AtomicInteger::get)
+                .description("Suscriptores conectados al stream de pedidos del servidor reactivo")
+                .register(registry);
+        this.droppedSubscribers = Counter.builder("coffee_reactive_order_stream_dropped_subscribers_total")
+                .description("Suscriptores del servidor reactivo desconectados por no consumir los eventos a tiempo")
+                .register(registry);
+    }
+
+    /**
+     * Eventos de pedidos que entran o salen de alguno de statuses (con statuses vacío o null, todos) más un
+     * heartbeat periódico
+     */
+    public Flux<ServerSentEvent<OrderDto>> subscribe(Collection<OrderStatus> statuses) {
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(OrderStatus.class) : EnumSet.copyOf(statuses);
+        Flux<ServerSentEvent<OrderDto>> orders = events.asFlux()
+                .filter(emitted -> emitted.event().involves(filter))
+                .map(Emitted::message);
+        Flux<ServerSentEvent<OrderDto>> heartbeats = Flux.interval(heartbeat, heartbeat).map(tick -> HEARTBEAT);
+
+        return Flux.merge(orders, heartbeats)
+                .onBackpressureBuffer(bufferSize, dropped -> { }, BufferOverflowStrategy.ERROR)
+                .onErrorResume(Exceptions::isOverflow, overflow -> {
+                    droppedSubscribers.increment();
+                    log.warn("Suscriptor del stream reactivo desconectado: buffer de {} eventos lleno", bufferSize);
+                    return Flux.empty();
+                })
+                .take(timeout)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (events.currentSubscriberCount() == 0) {
+            return;
+        }
+        ServerSentEvent<OrderDto> message = ServerSentEvent.builder(event.getOrder())
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .event("order-" + event.getType().name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .build();
+        // Los eventos llegan desde varios hilos a la vez: se reintenta mientras otro hilo está emitiendo
+        events.emitNext(new Emitted(event, message), Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    }
+
+    /**
+     * Termina todos los streams; se llama al detener el servidor para no demorar el apagado
+     */
+    public void complete() {
+        events.tryEmitComplete();
+    }
+
+    // El mensaje SSE se arma una vez por evento; el evento queda al lado para filtrar por estado anterior
+    private record Emitted(OrderEvent event, ServerSentEvent<OrderDto> message) { }
+}
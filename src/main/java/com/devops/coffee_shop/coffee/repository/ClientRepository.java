@@ -1,38 +1,79 @@
 package com.devops.coffee_shop.coffee.repository;
 
 import com.devops.coffee_shop.coffee.domain.Client;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para operaciones de base de datos con clientes
  */
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
+
+    // Las lecturas que terminan en ClientDto lo construyen directamente en la consulta:
+    // se seleccionan solo esas columnas y no se crean entidades administradas
+    String SELECT_DTO = "SELECT new com.devops.coffee_shop.coffee.dto.ClientDto(" +
+            "p.id, p.firstName, p.lastName, p.birthDate, p.active, p.createdAt, p.updatedAt) FROM Client p ";
     
     /**
-     * Busca clientes disponibles
+     * Busca clientes disponibles (caché de consultas: se invalida con cualquier escritura en clients)
      */
-    List<Client> findByActiveTrue();
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_DTO + "WHERE p.active = true")
+    List<ClientDto> findByActiveTrue();
     
     /**
      * Busca clientes por nombre (búsqueda parcial, case insensitive)
      */
-    @Query("SELECT p FROM Client p WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))")
-    List<Client> findByFirstNameContainingIgnoreCase(@Param("firstName") String firstName);
+    @Query(SELECT_DTO + "WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))")
+    List<ClientDto> findByFirstNameContainingIgnoreCase(@Param("firstName") String firstName);
 
     /**
      * Busca clientes por apellido (búsqueda parcial, case insensitive)
      */
-    @Query("SELECT p FROM Client p WHERE LOWER(p.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))")
-    List<Client> findByLastNameContainingIgnoreCase(@Param("lastName") String lastName);
+    @Query(SELECT_DTO + "WHERE LOWER(p.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))")
+    List<ClientDto> findByLastNameContainingIgnoreCase(@Param("lastName") String lastName);
     
 
+    /**
+     * Busca clientes cuyo nombre completo normalizado (en cualquier orden) empieza con el prefijo.
+     * El prefijo debe venir normalizado, con '!' como carácter de escape y terminado en '%'.
+     */
+    @Query(SELECT_DTO + "WHERE p.searchKey LIKE :prefix ESCAPE '!' " +
+           "OR p.reverseSearchKey LIKE :prefix ESCAPE '!' ORDER BY p.searchKey, p.id")
+    List<ClientDto> findBySearchKeyPrefix(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Busca clientes sin columnas derivadas del nombre (creados antes de que existieran)
+     */
+    @Query(SELECT_DTO + "WHERE p.firstNameLower IS NULL ORDER BY p.id")
+    List<ClientDto> findWithoutDerivedKeys();
+
+    /**
+     * Completa las columnas derivadas del nombre con un UPDATE directo: no pasa por @PreUpdate,
+     * así updated_at (y el ETag del cliente) no cambia
+     */
+    @Modifying
+    @Query("UPDATE Client c SET c.firstNameLower = :firstNameLower, c.lastNameLower = :lastNameLower, " +
+           "c.searchKey = :searchKey, c.reverseSearchKey = :reverseSearchKey WHERE c.id = :id")
+    int updateDerivedKeys(@Param("id") Long id,
+                          @Param("firstNameLower") String firstNameLower,
+                          @Param("lastNameLower") String lastNameLower,
+                          @Param("searchKey") String searchKey,
+                          @Param("reverseSearchKey") String reverseSearchKey);
+
     /**
      * Verifica si existe un cliente con el mismo nombre
      */
@@ -67,4 +108,17 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
      * Cuenta clientes disponibles
      */
     long countByActiveTrue();
+
+    /**
+     * Recorre todos los clientes en orden de ID sin materializarlos en una lista
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    Stream<ClientDto> streamAll();
+
+    /**
+     * Todos los clientes como DTO
+     */
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<ClientDto> findAllDtos();
 }
@@ -0,0 +1,37 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asigna IDs de pedido antes del INSERT usando el mismo generador (y el mismo bloque pooled-lo de
+ * orders_seq) que Hibernate usa al persistir, de modo que ambos caminos nunca repiten IDs.
+ */
+@Component
+public class OrderIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator generator;
+
+    public OrderIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Order.class)
+                .getGenerator();
+    }
+
+    /**
+     * Obtiene el siguiente ID; solo consulta la secuencia cuando se agota el bloque en memoria
+     */
+    public long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Object id = generator.generate((SharedSessionContractImplementor) session, null);
+            return ((Number) id).longValue();
+        }
+    }
+}
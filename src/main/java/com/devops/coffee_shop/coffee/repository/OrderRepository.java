@@ -2,18 +2,32 @@ package com.devops.coffee_shop.coffee.repository;
 
 import com.devops.coffee_shop.coffee.domain.Order;
 import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para operaciones de base de datos con pedidos (orders)
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Las lecturas que terminan en OrderDto lo construyen directamente en la consulta:
+    // se seleccionan solo esas columnas y no se crean entidades administradas
+    String SELECT_DTO = "SELECT new com.devops.coffee_shop.coffee.dto.OrderDto(" +
+            "o.id, o.customerName, o.drink, o.quantity, o.status, o.createdAt) FROM Order o ";
 
     /**
      * Busca pedidos por estado
@@ -26,6 +40,22 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT o FROM Order o WHERE LOWER(o.customerName) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Order> findByCustomerNameContainingIgnoreCase(@Param("name") String name);
 
+    /**
+     * Cambia el estado solo si el pedido sigue en el estado esperado (compare-and-set).
+     * Retorna la cantidad de filas actualizadas (0 o 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id = :id AND o.status = :expected")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expected") OrderStatus expected,
+                              @Param("status") OrderStatus status);
+
+    /**
+     * Cantidad de pedidos agrupada por estado: cada fila es [OrderStatus, Long]
+     */
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupedByStatus();
+
     /**
      * Cuenta pedidos entregados
      */
@@ -36,4 +66,48 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT COUNT(o) > 0 FROM Order o WHERE o.status <> 'DELIVERED' AND o.status <> 'CANCELED'")
     boolean hasPendingOrders();
+
+    /**
+     * Página de pedidos (keyset sobre created_at, id) posterior al cursor y anterior a :to.
+     * La condición redundante sobre createdAt >= :afterCreatedAt acota el recorrido del índice.
+     */
+    @Query(SELECT_DTO + "WHERE o.createdAt >= :afterCreatedAt AND o.createdAt < :to " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt, o.id")
+    List<OrderDto> findPageAfter(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                              @Param("afterId") Long afterId,
+                              @Param("to") LocalDateTime to,
+                              Limit limit);
+
+    /**
+     * Página de pedidos con un estado dado (keyset sobre status, created_at, id)
+     */
+    @Query(SELECT_DTO + "WHERE o.status = :status " +
+           "AND o.createdAt >= :afterCreatedAt AND o.createdAt < :to " +
+           "AND (o.createdAt > :afterCreatedAt OR o.id > :afterId) " +
+           "ORDER BY o.createdAt, o.id")
+    List<OrderDto> findPageByStatusAfter(@Param("status") OrderStatus status,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      @Param("to") LocalDateTime to,
+                                      Limit limit);
+
+    /**
+     * Recorre todos los pedidos en orden de ID sin materializarlos en una lista
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY o.id")
+    Stream<OrderDto> streamAll();
+
+    /**
+     * Todos los pedidos como DTO
+     */
+    @Query(SELECT_DTO + "ORDER BY o.id")
+    List<OrderDto> findAllDtos();
+
+    /**
+     * Un pedido como DTO
+     */
+    @Query(SELECT_DTO + "WHERE o.id = :id")
+    Optional<OrderDto> findDtoById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+
+import java.util.List;
+
+/**
+ * Operaciones de pedidos que se resuelven con JDBC directo
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Inserta pedidos que ya tienen ID asignado en un único lote JDBC, sin pasar por el contexto de persistencia
+     */
+    void insertAll(List<Order> orders);
+}
@@ -0,0 +1,28 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO orders (id, customer_name, drink, quantity, status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Order> orders) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, order.getId());
+            ps.setString(2, order.getCustomerName());
+            ps.setString(3, order.getDrink());
+            ps.setInt(4, order.getQuantity());
+            ps.setString(5, order.getStatus().name());
+            ps.setObject(6, order.getCreatedAt());
+        });
+    }
+}
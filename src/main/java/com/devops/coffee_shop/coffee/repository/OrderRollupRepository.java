@@ -0,0 +1,29 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository para los minutos persistidos del buffer de métricas de pedidos
+ */
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    /**
+     * Minutos guardados desde el minuto indicado (inclusive)
+     */
+    List<OrderRollup> findByEpochMinuteGreaterThanEqual(Long epochMinute);
+
+    /**
+     * Elimina los minutos que ya quedaron fuera de la ventana
+     */
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.epochMinute < :epochMinute")
+    int deleteOlderThan(@Param("epochMinute") Long epochMinute);
+}
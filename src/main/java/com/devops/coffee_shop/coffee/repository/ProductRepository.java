@@ -2,28 +2,40 @@ package com.devops.coffee_shop.coffee.repository;
 
 import com.devops.coffee_shop.coffee.domain.Product;
 import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para operaciones de base de datos con productos
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Las lecturas que terminan en ProductDto lo construyen directamente en la consulta:
+    // se seleccionan solo esas columnas y no se crean entidades administradas
+    String SELECT_DTO = "SELECT new com.devops.coffee_shop.coffee.dto.ProductDto(" +
+            "p.id, p.name, p.description, p.price, p.category, p.available, p.createdAt, p.updatedAt) FROM Product p ";
     
     /**
-     * Busca productos por categoría
+     * Busca productos por categoría (caché de consultas: se invalida con cualquier escritura en products)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByCategory(ProductCategory category);
     
     /**
-     * Busca productos disponibles
+     * Busca productos disponibles (caché de consultas)
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findByAvailableTrue();
     
     /**
@@ -34,14 +46,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Busca productos por nombre (búsqueda parcial, case insensitive)
      */
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Product> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Query(SELECT_DTO + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<ProductDto> findByNameContainingIgnoreCase(@Param("name") String name);
     
     /**
      * Busca productos por rango de precio
      */
-    @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
-    List<Product> findByPriceBetween(@Param("minPrice") java.math.BigDecimal minPrice, 
+    @Query(SELECT_DTO + "WHERE p.price BETWEEN :minPrice AND :maxPrice")
+    List<ProductDto> findByPriceBetween(@Param("minPrice") java.math.BigDecimal minPrice, 
                                    @Param("maxPrice") java.math.BigDecimal maxPrice);
     
     /**
@@ -63,4 +75,17 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Cuenta productos disponibles
      */
     long countByAvailableTrue();
+
+    /**
+     * Recorre todos los productos en orden de ID sin materializarlos en una lista
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    Stream<ProductDto> streamAll();
+
+    /**
+     * Todos los productos como DTO (carga del catálogo en memoria)
+     */
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<ProductDto> findAllDtos();
 }
@@ -0,0 +1,82 @@
+package com.devops.coffee_shop.coffee.search;
+
+import com.devops.coffee_shop.coffee.catalog.ProductCatalogSnapshot;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice de trigramas sobre los nombres de productos, alimentado desde el catálogo en memoria
+ */
+@Component
+public class ProductNameIndex {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    // ReentrantLock y no synchronized: la carga puede leer el catálogo de la base de datos y, con hilos
+    // virtuales, bloquearse dentro de un synchronized fija el hilo a su carrier mientras dura la consulta
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean loaded;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Carga el índice completo desde el catálogo si todavía no está cargado
+     */
+    public void ensureLoaded(Supplier<ProductCatalogSnapshot> catalog) {
+        lock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            ProductCatalogSnapshot snapshot = catalog.get();
+            index.clear();
+            for (ProductDto product : snapshot.getAll()) {
+                index.put(product.getId(), product.getName());
+            }
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Actualiza un producto tomando su estado de la copia más reciente del catálogo.
+     * La copia se obtiene dentro del lock para que una actualización vieja no pise una nueva.
+     */
+    public void refresh(Long productId, Supplier<ProductCatalogSnapshot> latest) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                // Todavía no se cargó: la carga inicial leerá el estado ya confirmado
+                return;
+            }
+            ProductCatalogSnapshot snapshot = latest.get();
+            if (snapshot == null) {
+                loaded = false;
+                return;
+            }
+            ProductDto product = snapshot.getById(productId);
+            if (product == null) {
+                index.remove(productId);
+            } else {
+                index.put(productId, product.getName());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retorna los IDs de productos cuyo nombre contiene la consulta, ordenados por relevancia
+     */
+    public List<Long> search(String query) {
+        return index.search(query);
+    }
+}
@@ -0,0 +1,139 @@
+package com.devops.coffee_shop.coffee.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de trigramas para búsqueda de subcadenas sobre textos cortos.
+ * Las escrituras se serializan; las lecturas no toman locks.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, String> texts = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Agrega o reemplaza el texto asociado a un ID
+     */
+    public synchronized void put(Long id, String text) {
+        remove(id);
+        String normalized = TextNormalizer.normalize(text);
+        texts.put(id, normalized);
+        for (String gram : trigrams(normalized)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Quita un ID del índice
+     */
+    public synchronized void remove(Long id) {
+        String previous = texts.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : trigrams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        texts.clear();
+        postings.clear();
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * Retorna los IDs cuyo texto contiene la consulta, ordenados por calidad de coincidencia:
+     * igual, prefijo, inicio de palabra y luego cualquier subcadena; a igual calidad, el texto más corto
+     */
+    public List<Long> search(String query) {
+        String normalized = TextNormalizer.normalize(query);
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates(normalized)) {
+            String text = texts.get(id);
+            if (text != null && text.contains(normalized)) {
+                matches.add(new Match(id, text, rank(text, normalized)));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparingInt(match -> match.text().length())
+                .thenComparing(Match::text)
+                .thenComparing(Match::id));
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM) {
+            // Consultas cortas no tienen trigramas: se verifica cada texto directamente
+            return texts.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Long> candidates = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        for (Long id : smallest) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(id);
+            }
+            if (inAll) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    private static int rank(String text, String query) {
+        if (text.equals(query)) {
+            return 0;
+        }
+        if (text.startsWith(query)) {
+            return 1;
+        }
+        if (text.contains(" " + query)) {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private record Match(Long id, String text, int rank) {}
+}
@@ -3,13 +3,22 @@ package com.devops.coffee_shop.coffee.service;
 import com.devops.coffee_shop.coffee.domain.Client;
 import com.devops.coffee_shop.coffee.dto.ClientDto;
 import com.devops.coffee_shop.coffee.repository.ClientRepository;
+import com.devops.coffee_shop.coffee.search.TextNormalizer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio para la lógica de negocio de clientes
@@ -18,6 +27,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class ClientService {
 
+    public static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private ClientRepository clientRepository;
 
@@ -26,19 +37,24 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public List<ClientDto> getAllClients() {
-        return clientRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return clientRepository.findAllDtos();
     }
 
     /**
-     * Obtiene un client por ID
+     * Obtiene un client por ID. findById pasa por la caché de segundo nivel: sin consulta si el cliente ya está
+     * en la región de Client
      */
     @Transactional(readOnly = true)
     public Optional<ClientDto> getClientById(Long id) {
-        return clientRepository.findById(id)
-                .map(this::convertToDto);
+        return clientRepository.findById(id).map(ClientService::convertToDto);
+    }
+
+    /**
+     * Obtiene la fecha de última modificación de un cliente, para responder GETs condicionales
+     */
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getClientUpdatedAt(Long id) {
+        return clientRepository.findById(id).map(Client::getUpdatedAt);
     }
 
     /**
@@ -46,10 +62,7 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public List<ClientDto> getActiveClients() {
-        return clientRepository.findByActiveTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return clientRepository.findByActiveTrue();
     }
 
     /**
@@ -57,10 +70,7 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public List<ClientDto> searchClientsByFirstName(String firstName) {
-        return clientRepository.findByFirstNameContainingIgnoreCase(firstName)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return clientRepository.findByFirstNameContainingIgnoreCase(firstName);
     }
 
     /**
@@ -68,27 +78,58 @@ public class ClientService {
      */
     @Transactional(readOnly = true)
     public List<ClientDto> searchClientsByLastName(String lastName) {
-        return clientRepository.findByLastNameContainingIgnoreCase(lastName)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return clientRepository.findByLastNameContainingIgnoreCase(lastName);
     }
 
     /**
-     * Crea un nuevo cliente
+     * Busca clientes por prefijo del nombre completo (nombre apellido o apellido nombre),
+     * sin distinguir mayúsculas ni acentos
      */
-    public ClientDto createClient(ClientDto clientDto) {
-        // Validar documento único
-        if (clientRepository.existsByDocumentNumber(clientDto.getDocumentNumber())) {
-            throw new IllegalArgumentException("Ya existe un cliente con el documento: " + clientDto.getDocumentNumber());
+    @Transactional(readOnly = true)
+    public List<ClientDto> searchClients(String query, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_SEARCH_RESULTS);
         }
-        // Validar que no exista un cliente con el mismo nombre+apellido
-        if (clientRepository.existsByFirstNameIgnoreCaseAndLastNameIgnoreCase(clientDto.getFirstName(), clientDto.getLastName())) {
-            throw new IllegalArgumentException("Ya existe un cliente con el nombre y apellido: " + clientDto.getFirstName() + " " + clientDto.getLastName());
+        String key = TextNormalizer.normalize(query);
+        if (key.isEmpty()) {
+            return List.of();
         }
+        String prefix = key.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        return clientRepository.findBySearchKeyPrefix(prefix, Limit.of(limit));
+    }
 
+    /**
+     * Completa las columnas derivadas del nombre de los clientes existentes al iniciar la aplicación.
+     * Se escriben con UPDATE y no modificando entidades: no es una edición del cliente y updated_at no cambia
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDerivedKeys() {
+        for (ClientDto legacy : clientRepository.findWithoutDerivedKeys()) {
+            // Entidad transitoria solo para calcular las claves con la misma regla que @PrePersist
+            Client keys = new Client(legacy.getFirstName(), legacy.getLastName(), legacy.getBirthDate());
+            keys.updateDerivedKeys();
+            clientRepository.updateDerivedKeys(legacy.getId(), keys.getFirstNameLower(), keys.getLastNameLower(),
+                    keys.getSearchKey(), keys.getReverseSearchKey());
+        }
+    }
+
+    /**
+     * Recorre todos los clientes entregándolos uno a uno; al ser DTOs no quedan en el contexto de persistencia
+     */
+    @Transactional(readOnly = true)
+    public void exportClients(Consumer<ClientDto> sink) {
+        try (Stream<ClientDto> clients = clientRepository.streamAll()) {
+            clients.forEach(sink);
+        }
+    }
+
+    /**
+     * Crea un nuevo cliente. El documento y el nombre+apellido únicos los garantizan
+     * las restricciones de la base de datos, también ante altas concurrentes.
+     */
+    public ClientDto createClient(ClientDto clientDto) {
         Client client = convertToEntity(clientDto);
-        Client savedClient = clientRepository.save(client);
+        Client savedClient = saveUnique(client, clientDto);
         return convertToDto(savedClient);
     }
 
@@ -99,29 +140,14 @@ public class ClientService {
         Client existingClient = clientRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
 
-        // Validar documento único (excluyendo el propio ID)
-        if (clientDto.getDocumentNumber() != null &&
-                clientRepository.existsByDocumentNumberAndIdNot(clientDto.getDocumentNumber(), id)) {
-            throw new IllegalArgumentException("Ya existe un cliente con el documento: " + clientDto.getDocumentNumber());
-        }
-
-        // Validar que el nuevo nombre+apellido no esté en uso por otro cliente
-        boolean sameFirst = existingClient.getFirstName().equalsIgnoreCase(clientDto.getFirstName());
-        boolean sameLast = existingClient.getLastName().equalsIgnoreCase(clientDto.getLastName());
-        if (!(sameFirst && sameLast) &&
-                clientRepository.existsByFirstNameIgnoreCaseAndLastNameIgnoreCaseAndIdNot(
-                        clientDto.getFirstName(), clientDto.getLastName(), id)) {
-            throw new IllegalArgumentException("Ya existe un cliente con el nombre y apellido: " + clientDto.getFirstName() + " " + clientDto.getLastName());
-        }
-
-        // Actualizar campos
+        // Actualizar campos; la unicidad la validan las restricciones al hacer flush
         existingClient.setFirstName(clientDto.getFirstName());
         existingClient.setLastName(clientDto.getLastName());
         existingClient.setBirthDate(clientDto.getBirthDate());
         existingClient.setDocumentNumber(clientDto.getDocumentNumber());
         existingClient.setActive(clientDto.isActive());
 
-        Client updatedClient = clientRepository.save(existingClient);
+        Client updatedClient = saveUnique(existingClient, clientDto);
         return convertToDto(updatedClient);
     }
 
@@ -148,9 +174,42 @@ public class ClientService {
     }
 
     /**
-     * Convierte entidad a DTO
+     * Guarda y hace flush para que una violación de unicidad se traduzca aquí al mensaje de negocio
+     */
+    private Client saveUnique(Client client, ClientDto clientDto) {
+        try {
+            return clientRepository.saveAndFlush(client);
+        } catch (DataIntegrityViolationException e) {
+            String violation = describeViolation(e);
+            if (violation.contains(Client.UK_NAME)) {
+                throw new IllegalArgumentException("Ya existe un cliente con el nombre y apellido: " + clientDto.getFirstName() + " " + clientDto.getLastName());
+            }
+            // Bases creadas antes de nombrar la restricción: Postgres informa "Key (document_number)=..."
+            if (violation.contains(Client.UK_DOCUMENT_NUMBER) || violation.contains("key (document_number)")) {
+                throw new IllegalArgumentException("Ya existe un cliente con el documento: " + clientDto.getDocumentNumber());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Nombre de la restricción violada y mensaje del driver, sin la sentencia SQL (que nombra todas las columnas)
+     */
+    private String describeViolation(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null ? violation.getConstraintName() : "";
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        int sql = message.indexOf("SQL statement");
+        if (sql >= 0) {
+            message = message.substring(0, sql);
+        }
+        return (constraint + " " + message).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Convierte entidad a DTO (visible en el paquete para los benchmarks de src/jmh/java)
      */
-    private ClientDto convertToDto(Client client) {
+    static ClientDto convertToDto(Client client) {
         ClientDto dto = new ClientDto();
         dto.setId(client.getId());
         dto.setFirstName(client.getFirstName());
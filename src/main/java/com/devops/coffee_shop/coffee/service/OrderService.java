@@ -2,62 +2,301 @@ package com.devops.coffee_shop.coffee.service;
 
 import com.devops.coffee_shop.coffee.domain.Order;
 import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderAnalyticsDto;
+import com.devops.coffee_shop.coffee.dto.OrderBatchResultDto;
 import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.dto.OrderPageDto;
+import com.devops.coffee_shop.coffee.dto.OrderStatsDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
 import com.devops.coffee_shop.coffee.metrics.CoffeeMetrics;
+import com.devops.coffee_shop.coffee.repository.OrderIdGenerator;
 import com.devops.coffee_shop.coffee.repository.OrderRepository;
+import com.devops.coffee_shop.coffee.stats.OrderRollups;
+import com.devops.coffee_shop.coffee.stats.OrderStatusCounters;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    // Límites usados cuando no se filtra por rango, para que la consulta siempre sea un rango del índice
+    private static final LocalDateTime MIN_CREATED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderIdGenerator orderIdGenerator;
+
     @Autowired
     private CoffeeMetrics coffeeMetrics;
 
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private OrderRollups orderRollups;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Crea un pedido; si no es válido lanza IllegalArgumentException con el motivo (mismo criterio que el
+     * ingreso asíncrono y el servidor reactivo)
+     */
     public OrderDto createOrder(OrderDto dto) {
+        String error = validateOrder(dto);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
         Order order = new Order(dto.getCustomerName(), dto.getDrink(), dto.getQuantity());
         Order saved = orderRepository.save(order);
         coffeeMetrics.incrementOrdersCreated();
-        return convertToDto(saved);
+        OrderDto created = convertToDto(saved);
+        eventPublisher.publishEvent(OrderEvent.created(created));
+        return created;
+    }
+
+    /**
+     * Crea varios pedidos en una sola transacción; los INSERT se envían agrupados en lotes JDBC.
+     * Los pedidos inválidos se informan en su resultado y no impiden guardar el resto.
+     */
+    public List<OrderBatchResultDto> createOrders(List<OrderDto> dtos) {
+        if (dtos == null || dtos.isEmpty() || dtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("El lote debe contener entre 1 y " + MAX_BATCH_SIZE + " pedidos");
+        }
+
+        OrderBatchResultDto[] results = new OrderBatchResultDto[dtos.size()];
+        List<Order> orders = new ArrayList<>(dtos.size());
+        List<Integer> positions = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            OrderDto dto = dtos.get(i);
+            String error = validateOrder(dto);
+            if (error != null) {
+                results[i] = OrderBatchResultDto.rejected(i, error);
+            } else {
+                orders.add(new Order(dto.getCustomerName(), dto.getDrink(), dto.getQuantity()));
+                positions.add(i);
+            }
+        }
+
+        List<Order> saved = orderRepository.saveAll(orders);
+        for (int i = 0; i < saved.size(); i++) {
+            int position = positions.get(i);
+            OrderDto created = convertToDto(saved.get(i));
+            results[position] = OrderBatchResultDto.created(position, created);
+            eventPublisher.publishEvent(OrderEvent.created(created));
+        }
+        if (!saved.isEmpty()) {
+            coffeeMetrics.incrementOrdersCreated(saved.size());
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Valida el pedido y le asigna ID sin guardarlo, para el ingreso asíncrono
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order prepareOrder(OrderDto dto) {
+        String error = validateOrder(dto);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        Order order = new Order(dto.getCustomerName(), dto.getDrink(), dto.getQuantity());
+        order.setId(orderIdGenerator.nextId());
+        return order;
+    }
+
+    /**
+     * Inserta en un lote JDBC pedidos ya preparados con prepareOrder
+     */
+    public void persistAcceptedOrders(List<Order> orders) {
+        orderRepository.insertAll(orders);
+        coffeeMetrics.incrementOrdersCreated(orders.size());
+        for (Order order : orders) {
+            eventPublisher.publishEvent(OrderEvent.created(convertToDto(order)));
+        }
     }
 
     @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll().stream().map(this::convertToDto).collect(Collectors.toList());
+        return orderRepository.findAllDtos();
+    }
+
+    /**
+     * Obtiene una página de pedidos ordenada por fecha de creación usando un cursor (keyset),
+     * filtrando opcionalmente por estado y por rango [from, to) de fecha de creación
+     */
+    @Transactional(readOnly = true)
+    public OrderPageDto getOrdersPage(OrderStatus status, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+
+        LocalDateTime afterCreatedAt = from != null ? from : MIN_CREATED_AT;
+        long afterId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            LocalDateTime cursorCreatedAt = LocalDateTime.parse(position[0]);
+            if (!cursorCreatedAt.isBefore(afterCreatedAt)) {
+                afterCreatedAt = cursorCreatedAt;
+                afterId = Long.parseLong(position[1]);
+            }
+        }
+        LocalDateTime until = to != null ? to : MAX_CREATED_AT;
+
+        // Se pide un elemento de más para saber si existe una página siguiente
+        Limit limit = Limit.of(size + 1);
+        List<OrderDto> orders = status != null
+                ? orderRepository.findPageByStatusAfter(status, afterCreatedAt, afterId, until, limit)
+                : orderRepository.findPageAfter(afterCreatedAt, afterId, until, limit);
+
+        boolean hasNext = orders.size() > size;
+        List<OrderDto> page = hasNext ? List.copyOf(orders.subList(0, size)) : orders;
+        String nextCursor = hasNext ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new OrderPageDto(page, nextCursor);
+    }
+
+    /**
+     * Recorre todos los pedidos entregándolos uno a uno; al ser DTOs no quedan en el contexto de persistencia
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(Consumer<OrderDto> sink) {
+        try (Stream<OrderDto> orders = orderRepository.streamAll()) {
+            orders.forEach(sink);
+        }
     }
 
     @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderById(Long id) {
-        return orderRepository.findById(id).map(this::convertToDto);
+        return orderRepository.findDtoById(id);
     }
 
+    /**
+     * Cambia el estado sin leer el pedido antes: un UPDATE condicionado (compare-and-set) por cada estado de origen
+     * permitido, y el que modifica la fila indica desde qué estado partió. Solo CANCELED tiene más de un origen.
+     * Si el pedido no existe lanza IllegalArgumentException; si la transición no es válida
+     * (o el pedido cambió de estado concurrentemente) lanza IllegalStateException.
+     */
     public OrderDto updateStatus(Long id, OrderStatus status) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
+        if (status == null) {
+            throw new IllegalArgumentException("El estado es obligatorio");
+        }
+        OrderStatus previous = null;
+        for (OrderStatus from : status.allowedPredecessors()) {
+            if (orderRepository.updateStatusIfCurrent(id, from, status) == 1) {
+                previous = from;
+                break;
+            }
+        }
+        if (previous == null) {
+            OrderDto current = orderRepository.findDtoById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
+            throw new IllegalStateException("Transición no permitida para el pedido " + id + ": "
+                    + current.getStatus() + " -> " + status);
+        }
 
-        order.setStatus(status);
+        // Solo READY puede pasar a DELIVERED, por lo que cada pedido se cuenta una única vez
         if (status == OrderStatus.DELIVERED) {
             coffeeMetrics.incrementOrdersDelivered();
         }
 
-        Order updated = orderRepository.save(order);
-        return convertToDto(updated);
+        OrderDto updatedDto = orderRepository.findDtoById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
+        // El evento y la respuesta describen esta transición aunque otra ya lo haya movido después
+        updatedDto.setStatus(status);
+        eventPublisher.publishEvent(OrderEvent.statusChanged(updatedDto, previous));
+        return updatedDto;
     }
 
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        orderRepository.findById(id).ifPresent(order -> {
+            orderRepository.delete(order);
+            eventPublisher.publishEvent(OrderEvent.deleted(convertToDto(order)));
+        });
+    }
+
+    /**
+     * Cantidad de pedidos por estado según los contadores en memoria, sin consultar la base de datos
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderStatsDto getStats() {
+        return orderStatusCounters.snapshot();
+    }
+
+    /**
+     * Pedidos por minuto de la ventana indicada, servidos desde el buffer en memoria
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderAnalyticsDto getAnalytics(Duration window) {
+        long minutes = window.toMinutes();
+        if (minutes < 1 || minutes > OrderRollups.MINUTES) {
+            throw new IllegalArgumentException("La ventana debe estar entre 1 minuto y 24 horas");
+        }
+        return orderRollups.analytics((int) minutes);
+    }
+
+    /**
+     * Retorna el motivo por el que el pedido no es válido, o null si lo es
+     */
+    public static String validateOrder(OrderDto dto) {
+        if (dto == null) {
+            return "El pedido es obligatorio";
+        }
+        if (dto.getCustomerName() == null || dto.getCustomerName().isBlank()) {
+            return "El nombre del cliente es obligatorio";
+        }
+        if (dto.getDrink() == null || dto.getDrink().isBlank()) {
+            return "La bebida es obligatoria";
+        }
+        if (dto.getQuantity() < 1) {
+            return "La cantidad debe ser mayor a 0";
+        }
+        return null;
+    }
+
+    private String encodeCursor(OrderDto last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
     }
 
-    private OrderDto convertToDto(Order order) {
+    // Visible en el paquete para los benchmarks de src/jmh/java
+    static OrderDto convertToDto(Order order) {
         OrderDto dto = new OrderDto();
         dto.setId(order.getId());
         dto.setCustomerName(order.getCustomerName());
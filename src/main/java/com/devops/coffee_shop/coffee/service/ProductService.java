@@ -1,17 +1,29 @@
 package com.devops.coffee_shop.coffee.service;
 
+import com.devops.coffee_shop.coffee.catalog.ProductCatalog;
+import com.devops.coffee_shop.coffee.catalog.ProductCatalogSnapshot;
+import com.devops.coffee_shop.coffee.catalog.ProductChangedEvent;
 import com.devops.coffee_shop.coffee.domain.Product;
 import com.devops.coffee_shop.coffee.domain.ProductCategory;
 import com.devops.coffee_shop.coffee.dto.ProductDto;
 import com.devops.coffee_shop.coffee.repository.ProductRepository;
+import com.devops.coffee_shop.coffee.search.ProductNameIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Servicio para la lógica de negocio de productos
@@ -22,57 +34,76 @@ public class ProductService {
     
     @Autowired
     private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // false vuelve a la consulta JPQL con LIKE en lugar del índice de trigramas
+    @Value("${coffee.products.search.use-index:true}")
+    private boolean searchUseIndex;
+    
+    // Las lecturas del catálogo en memoria no abren transacción: solo la carga inicial consulta la base
     
     /**
      * Obtiene todos los productos
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().getAll();
+    }
+    
+    /**
+     * Obtiene la copia vigente del catálogo, con sus ETags, para responder GETs condicionales
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ProductCatalogSnapshot getCatalog() {
+        return catalog();
     }
     
     /**
      * Obtiene un producto por ID
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<ProductDto> getProductById(Long id) {
-        return productRepository.findById(id)
-                .map(this::convertToDto);
+        return Optional.ofNullable(catalog().getById(id));
     }
     
     /**
      * Obtiene productos por categoría
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getProductsByCategory(ProductCategory category) {
-        return productRepository.findByCategory(category)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().getByCategory(category);
     }
     
     /**
      * Obtiene productos disponibles
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> getAvailableProducts() {
-        return productRepository.findByAvailableTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().getAvailable();
     }
     
     /**
-     * Busca productos por nombre
+     * Busca productos por nombre, ordenados por relevancia cuando se usa el índice de trigramas
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ProductDto> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name)
+        if (!searchUseIndex) {
+            return productRepository.findByNameContainingIgnoreCase(name);
+        }
+        productNameIndex.ensureLoaded(this::catalog);
+        ProductCatalogSnapshot snapshot = catalog();
+        return productNameIndex.search(name)
                 .stream()
-                .map(this::convertToDto)
+                .map(snapshot::getById)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
@@ -81,12 +112,19 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceBetween(minPrice, maxPrice)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return productRepository.findByPriceBetween(minPrice, maxPrice);
     }
     
+    /**
+     * Recorre todos los productos entregándolos uno a uno; al ser DTOs no quedan en el contexto de persistencia
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<ProductDto> sink) {
+        try (Stream<ProductDto> products = productRepository.streamAll()) {
+            products.forEach(sink);
+        }
+    }
+
     /**
      * Crea un nuevo producto
      */
@@ -98,7 +136,7 @@ public class ProductService {
         
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        return publishSaved(convertToDto(savedProduct));
     }
     
     /**
@@ -122,7 +160,7 @@ public class ProductService {
         existingProduct.setAvailable(productDto.isAvailable());
         
         Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDto(updatedProduct);
+        return publishSaved(convertToDto(updatedProduct));
     }
     
     /**
@@ -133,6 +171,7 @@ public class ProductService {
             throw new IllegalArgumentException("Producto no encontrado con ID: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
     
     /**
@@ -144,13 +183,37 @@ public class ProductService {
         
         product.setAvailable(!product.isAvailable());
         Product updatedProduct = productRepository.save(product);
-        return convertToDto(updatedProduct);
+        return publishSaved(convertToDto(updatedProduct));
+    }
+    
+    /**
+     * Reconstruye el catálogo en memoria una vez confirmada la transacción que modificó productos.
+     * Sin readOnly para leer del primario: una réplica atrasada dejaría en memoria el catálogo anterior al cambio.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onProductChanged(ProductChangedEvent event) {
+        productCatalog.rebuild(this::loadCatalog);
+        productNameIndex.refresh(event.getProductId(), productCatalog::current);
+    }
+    
+    private ProductCatalogSnapshot catalog() {
+        return productCatalog.snapshot(this::loadCatalog);
+    }
+    
+    private List<ProductDto> loadCatalog() {
+        return productRepository.findAllDtos();
+    }
+    
+    private ProductDto publishSaved(ProductDto product) {
+        eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        return product;
     }
     
     /**
-     * Convierte entidad a DTO
+     * Convierte entidad a DTO (visible en el paquete para los benchmarks de src/jmh/java)
      */
-    private ProductDto convertToDto(Product product) {
+    static ProductDto convertToDto(Product product) {
         ProductDto dto = new ProductDto();
         dto.setId(product.getId());
         dto.setName(product.getName());
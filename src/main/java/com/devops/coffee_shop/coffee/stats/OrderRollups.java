@@ -0,0 +1,274 @@
+package com.devops.coffee_shop.coffee.stats;
+
+import com.devops.coffee_shop.coffee.domain.OrderRollup;
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderAnalyticsDto;
+import com.devops.coffee_shop.coffee.dto.OrderMinuteDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import com.devops.coffee_shop.coffee.repository.OrderRollupRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pedidos por minuto de las últimas 24 horas, por bebida (pedidos creados) y por estado (cambios
+ * hacia cada estado). Es un buffer circular de 1440 minutos sobre arreglos atómicos de tamaño fijo:
+ * registrar un evento no reserva memoria. Se guarda periódicamente en order_rollups y se recarga al iniciar.
+ */
+@Component
+public class OrderRollups implements SmartInitializingSingleton {
+
+    public static final int MINUTES = 24 * 60;
+    public static final String OTHER_DRINK = "otras";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRollups.class);
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final TypeReference<Map<String, Map<String, Long>>> COUNTS_TYPE = new TypeReference<>() {};
+
+    private final OrderRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Minuto (desde epoch) que contiene cada posición del buffer; -1 si está vacía
+    private final AtomicLongArray bucketMinutes = new AtomicLongArray(MINUTES);
+    private final AtomicLongArray drinkCounts;
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MINUTES * STATUSES.length);
+    private final Object rolloverLock = new Object();
+
+    // Diccionario acotado de bebidas; la última posición agrupa las que no entran
+    private final int drinkSlots;
+    private final String[] drinkNames;
+    private final Map<String, Integer> drinkIds = new ConcurrentHashMap<>();
+    private int drinkCount;
+
+    private volatile long lastSnapshotMinute;
+
+    public OrderRollups(OrderRollupRepository rollupRepository, PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        @Value("${coffee.orders.analytics.max-drinks:64}") int maxDrinks) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.drinkSlots = maxDrinks + 1;
+        this.drinkNames = new String[drinkSlots];
+        this.drinkNames[maxDrinks] = OTHER_DRINK;
+        this.drinkCounts = new AtomicLongArray(MINUTES * drinkSlots);
+        for (int i = 0; i < MINUTES; i++) {
+            bucketMinutes.set(i, -1);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long now = currentMinute();
+        try {
+            List<OrderRollup> saved = transactionTemplate.execute(
+                    status -> rollupRepository.findByEpochMinuteGreaterThanEqual(now - MINUTES + 1));
+            for (OrderRollup rollup : saved) {
+                restore(rollup);
+            }
+            log.info("Buffer de pedidos por minuto restaurado: {} minutos", saved.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo restaurar el buffer de pedidos por minuto", e);
+        }
+        lastSnapshotMinute = now;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        int bucket = bucket(currentMinute());
+        if (bucket < 0) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED -> {
+                drinkCounts.incrementAndGet(bucket * drinkSlots + drinkId(event.getOrder().getDrink()));
+                statusCounts.incrementAndGet(bucket * STATUSES.length + OrderStatus.NEW.ordinal());
+            }
+            case STATUS_CHANGED ->
+                    statusCounts.incrementAndGet(bucket * STATUSES.length + event.getOrder().getStatus().ordinal());
+            case DELETED -> {
+                // Eliminar un pedido no es parte del flujo de trabajo que se mide
+            }
+        }
+    }
+
+    /**
+     * Pedidos por minuto de los últimos window minutos (incluyendo el minuto en curso)
+     */
+    public OrderAnalyticsDto analytics(int windowMinutes) {
+        long now = currentMinute();
+        long first = now - windowMinutes + 1;
+        Map<String, Long> totalByDrink = new LinkedHashMap<>();
+        Map<String, Long> totalByStatus = new LinkedHashMap<>();
+        List<OrderMinuteDto> minutes = new ArrayList<>(windowMinutes);
+        for (long minute = first; minute <= now; minute++) {
+            Map<String, Long> byDrink = new LinkedHashMap<>();
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            int bucket = (int) (minute % MINUTES);
+            if (bucketMinutes.get(bucket) == minute) {
+                readBucket(bucket, byDrink, byStatus);
+                byDrink.forEach((drink, count) -> totalByDrink.merge(drink, count, Long::sum));
+                byStatus.forEach((status, count) -> totalByStatus.merge(status, count, Long::sum));
+            }
+            minutes.add(new OrderMinuteDto(toLocal(minute), byDrink, byStatus));
+        }
+        return new OrderAnalyticsDto(toLocal(first), toLocal(now + 1), totalByDrink, totalByStatus, minutes);
+    }
+
+    /**
+     * Guarda los minutos modificados desde la última copia y elimina los que salieron de la ventana
+     */
+    @Scheduled(fixedDelayString = "${coffee.orders.analytics.snapshot-interval:1m}")
+    public void snapshot() {
+        long now = currentMinute();
+        List<OrderRollup> rollups = new ArrayList<>();
+        // El último minuto copiado pudo seguir recibiendo eventos después de la copia
+        for (long minute = Math.max(lastSnapshotMinute, now - MINUTES + 1); minute <= now; minute++) {
+            int bucket = (int) (minute % MINUTES);
+            if (bucketMinutes.get(bucket) != minute) {
+                continue;
+            }
+            Map<String, Long> byDrink = new LinkedHashMap<>();
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            readBucket(bucket, byDrink, byStatus);
+            rollups.add(new OrderRollup(minute, toJson(Map.of("drinks", byDrink, "statuses", byStatus))));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.saveAll(rollups);
+            rollupRepository.deleteOlderThan(now - MINUTES + 1);
+        });
+        lastSnapshotMinute = now;
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo guardar el buffer de pedidos por minuto al apagar", e);
+        }
+    }
+
+    private void restore(OrderRollup rollup) {
+        long minute = rollup.getEpochMinute();
+        int bucket = bucket(minute);
+        if (bucket < 0) {
+            return;
+        }
+        Map<String, Map<String, Long>> counts = fromJson(rollup.getCounts());
+        counts.getOrDefault("drinks", Map.of()).forEach((drink, count) ->
+                drinkCounts.addAndGet(bucket * drinkSlots + drinkId(drink), count));
+        counts.getOrDefault("statuses", Map.of()).forEach((status, count) ->
+                statusCounts.addAndGet(bucket * STATUSES.length + OrderStatus.valueOf(status).ordinal(), count));
+    }
+
+    /**
+     * Posición del buffer para el minuto; la limpia si contenía un minuto anterior.
+     * Retorna -1 si el minuto es más viejo que el que ya ocupa la posición.
+     */
+    private int bucket(long minute) {
+        int bucket = (int) (minute % MINUTES);
+        if (bucketMinutes.get(bucket) == minute) {
+            return bucket;
+        }
+        synchronized (rolloverLock) {
+            long current = bucketMinutes.get(bucket);
+            if (current == minute) {
+                return bucket;
+            }
+            if (current > minute) {
+                return -1;
+            }
+            for (int i = 0; i < drinkSlots; i++) {
+                drinkCounts.set(bucket * drinkSlots + i, 0);
+            }
+            for (int i = 0; i < STATUSES.length; i++) {
+                statusCounts.set(bucket * STATUSES.length + i, 0);
+            }
+            bucketMinutes.set(bucket, minute);
+            return bucket;
+        }
+    }
+
+    private int drinkId(String drink) {
+        String name = drink == null ? OTHER_DRINK : drink.trim();
+        Integer id = drinkIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (drinkNames) {
+            id = drinkIds.get(name);
+            if (id != null) {
+                return id;
+            }
+            if (drinkCount == drinkSlots - 1) {
+                return drinkSlots - 1;
+            }
+            id = drinkCount++;
+            drinkNames[id] = name;
+            drinkIds.put(name, id);
+            return id;
+        }
+    }
+
+    private void readBucket(int bucket, Map<String, Long> byDrink, Map<String, Long> byStatus) {
+        for (int i = 0; i < drinkSlots; i++) {
+            long count = drinkCounts.get(bucket * drinkSlots + i);
+            if (count > 0) {
+                byDrink.put(drinkNames[i], count);
+            }
+        }
+        for (OrderStatus status : STATUSES) {
+            long count = statusCounts.get(bucket * STATUSES.length + status.ordinal());
+            if (count > 0) {
+                byStatus.put(status.name(), count);
+            }
+        }
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private static LocalDateTime toLocal(long epochMinute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), ZoneId.systemDefault());
+    }
+
+    private String toJson(Map<String, Map<String, Long>> counts) {
+        try {
+            return objectMapper.writeValueAsString(counts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el minuto de pedidos", e);
+        }
+    }
+
+    private Map<String, Map<String, Long>> fromJson(String counts) {
+        try {
+            return objectMapper.readValue(counts, COUNTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Minuto de pedidos guardado con formato inválido", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.devops.coffee_shop.coffee.stats;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderStatsDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import com.devops.coffee_shop.coffee.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cantidad de pedidos por estado mantenida en memoria. Se carga una vez al iniciar con un
+ * GROUP BY y luego se actualiza solo con los eventos de OrderService ya confirmados: releer los totales
+ * mientras llegan eventos contaría dos veces (o perdería) los que se confirman entre la lectura y el ajuste.
+ * Los cambios hechos por fuera de esta instancia no se reflejan hasta reiniciarla.
+ */
+@Component
+public class OrderStatusCounters implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusCounters.class);
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OrderStatus, LongAdder> counts = new EnumMap<>(OrderStatus.class);
+
+    public OrderStatusCounters(OrderRepository orderRepository, PlatformTransactionManager transactionManager,
+                               MeterRegistry registry) {
+        this.orderRepository = orderRepository;
+        // Sin readOnly para leer del primario: una réplica atrasada dejaría fuera pedidos recién confirmados
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (OrderStatus status : OrderStatus.values()) {
+            LongAdder counter = new LongAdder();
+            counts.put(status, counter);
+            Gauge.builder("coffee_orders_by_status", counter, LongAdder::sum)
+                    .description("Cantidad actual de pedidos por estado")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Carga los totales de la base de datos, antes de que el servidor acepte peticiones que generen eventos
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Object[]> rows = transactionTemplate.execute(status -> orderRepository.countGroupedByStatus());
+        for (Object[] row : rows) {
+            counts.get((OrderStatus) row[0]).add(((Number) row[1]).longValue());
+        }
+        log.debug("Contadores de pedidos por estado cargados: {}", snapshot().getByStatus());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        OrderStatus status = event.getOrder().getStatus();
+        switch (event.getType()) {
+            case CREATED -> counts.get(status).increment();
+            case STATUS_CHANGED -> {
+                counts.get(event.getPreviousStatus()).decrement();
+                counts.get(status).increment();
+            }
+            case DELETED -> counts.get(status).decrement();
+        }
+    }
+
+    public long count(OrderStatus status) {
+        return counts.get(status).sum();
+    }
+
+    public OrderStatsDto snapshot() {
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        long total = 0;
+        long pending = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            long count = counts.get(status).sum();
+            byStatus.put(status, count);
+            total += count;
+            if (!status.isFinal()) {
+                pending += count;
+            }
+        }
+        return new OrderStatsDto(byStatus, total, pending);
+    }
+}
@@ -0,0 +1,204 @@
+package com.devops.coffee_shop.coffee.stream;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribuye los eventos de pedidos a los suscriptores SSE (pantallas de retiro y tablets de baristas).
+ * Cada suscriptor tiene un buffer acotado que se vacía en un pool de envío propio, de modo que un
+ * cliente lento nunca bloquea al que publica; si su buffer se llena, se lo desconecta.
+ */
+@Component
+public class OrderEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter droppedSubscribers;
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("keepalive").build();
+
+    @Autowired
+    public OrderEventBroadcaster(MeterRegistry registry,
+                                 @Value("${coffee.orders.stream.buffer-size:256}") int bufferSize,
+                                 @Value("${coffee.orders.stream.timeout:30m}") Duration timeout,
+                                 @Value("${coffee.orders.stream.heartbeat:15s}") Duration heartbeatInterval,
+                                 @Value("${coffee.orders.stream.sender-threads:4}") int senderThreads) {
+        this(registry, bufferSize, timeout, heartbeatInterval,
+                Executors.newFixedThreadPool(senderThreads, namedThreads("order-stream-sender-")));
+    }
+
+    // Visible en el paquete para que los tests simulen un pool de envío ocupado
+    OrderEventBroadcaster(MeterRegistry registry, int bufferSize, Duration timeout, Duration heartbeatInterval,
+                          ExecutorService senders) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = senders;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(namedThreads("order-stream-heartbeat-"));
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        Gauge.builder("coffee_order_stream_subscribers", subscribers, Set::size)
+                .description("Suscriptores conectados al stream de pedidos")
+                .register(registry);
+        this.droppedSubscribers = Counter.builder("coffee_order_stream_dropped_subscribers_total")
+                .description("Suscriptores desconectados por no consumir los eventos a tiempo")
+                .register(registry);
+    }
+
+    /**
+     * Registra un suscriptor; recibe los eventos de pedidos que entran o salen de alguno de statuses
+     * (con statuses vacío o null, todos)
+     */
+    public SseEmitter subscribe(Collection<OrderStatus> statuses) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty()
+                ? EnumSet.allOf(OrderStatus.class) : EnumSet.copyOf(statuses);
+        Subscriber subscriber = new Subscriber(emitter, filter, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Encola el evento en cada suscriptor interesado; solo se ejecuta si la transacción se confirmó
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .name("order-" + event.getType().name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                .data(event.getOrder(), MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (event.involves(subscriber.statuses)) {
+                enqueue(subscriber, message);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, heartbeat);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> message) {
+        if (!subscriber.queue.offer(message)) {
+            drop(subscriber);
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Set<DataWithMediaType> message;
+            while ((message = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(message);
+                } catch (IOException | IllegalStateException e) {
+                    // El cliente se desconectó o el emitter ya fue completado
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.scheduled.set(false);
+            // Un evento pudo encolarse entre el último poll y la línea anterior
+        } while (!subscriber.queue.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            droppedSubscribers.increment();
+            subscriber.queue.clear();
+            subscriber.emitter.complete();
+            log.warn("Suscriptor del stream de pedidos desconectado: buffer de {} eventos lleno", bufferSize);
+        }
+    }
+
+    /**
+     * Cierra los streams al comenzar el apagado; si no, el apagado ordenado esperaría a que expiren
+     */
+    @EventListener(ContextClosedEvent.class)
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    private static java.util.concurrent.ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<OrderStatus> statuses;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<OrderStatus> statuses, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.statuses = statuses;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.devops.coffee_shop.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Conexiones R2DBC del servidor reactivo de pedidos (coffee.reactive.enabled, perfil reactive).
+ * Es un pool aparte del de Hikari contra la misma base: el resto de la aplicación sigue usando JPA.
+ * El pool no se publica como bean ConnectionFactory: con uno presente, Spring Boot no crearía el DataSource de JPA.
+ */
+@Configuration
+@ConditionalOnProperty(name = "coffee.reactive.enabled", havingValue = "true")
+public class ReactiveOrdersConfig {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(DataSourceProperties properties,
+                                                 MeterRegistry registry,
+                                                 @Value("${coffee.reactive.r2dbc-url:}") String url,
+                                                 @Value("${coffee.reactive.pool-size:20}") int poolSize,
+                                                 @Value("${coffee.reactive.max-acquire-time:2s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl(url, properties.determineUrl()))
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, properties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.determinePassword())
+                .build();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options);
+        // Con el pool agotado la petición falla a los maxAcquireTime en lugar de esperar indefinidamente
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive-orders")
+                .initialSize(Math.min(poolSize, 5))
+                .maxSize(poolSize)
+                .maxAcquireTime(maxAcquireTime)
+                .maxIdleTime(Duration.ofMinutes(30))
+                .build());
+
+        gauge(registry, pool, "coffee_reactive_pool_acquired", "Conexiones R2DBC en uso", PoolMetrics::acquiredSize);
+        gauge(registry, pool, "coffee_reactive_pool_pending", "Peticiones esperando una conexión R2DBC",
+                PoolMetrics::pendingAcquireSize);
+        return DatabaseClient.create(pool);
+    }
+
+    @PreDestroy
+    public void closePool() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    /**
+     * URL de R2DBC; si no se configuró, se deriva de la URL JDBC de PostgreSQL (jdbc:postgresql:// -> r2dbc:postgresql://)
+     */
+    static String r2dbcUrl(String url, String jdbcUrl) {
+        if (StringUtils.hasText(url)) {
+            return url;
+        }
+        if (jdbcUrl != null && jdbcUrl.startsWith("jdbc:postgresql:")) {
+            return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+        }
+        throw new IllegalStateException("Falta coffee.reactive.r2dbc-url: solo se deriva de spring.datasource.url con PostgreSQL");
+    }
+
+    private static void gauge(MeterRegistry registry, ConnectionPool pool, String name, String description,
+                              ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder(name, pool, p -> p.getMetrics().map(value::applyAsDouble).orElse(0.0))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.devops.coffee_shop.config;
+
+import com.devops.coffee_shop.coffee.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réplicas de lectura: con coffee.datasource.replica-urls definido, las transacciones readOnly se envían
+ * a las réplicas y el resto al primario (spring.datasource.*). Sin réplicas configuradas no se activa
+ * y Spring Boot crea el DataSource de siempre.
+ */
+@Configuration
+@ConditionalOnExpression("!'${coffee.datasource.replica-urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    private final List<HikariDataSource> replicaPools = new ArrayList<>();
+
+    /**
+     * Pool del primario, configurado igual que el de Spring Boot (spring.datasource.hikari.*).
+     * Flyway lo usa directamente.
+     */
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                      DataSourceProperties properties,
+                                                      MeterRegistry registry,
+                                                      @Value("${coffee.datasource.replica-urls}") String replicaUrls,
+                                                      @Value("${coffee.datasource.replica-pool-size:10}") int poolSize,
+                                                      @Value("${coffee.datasource.replica-connection-timeout:2s}") Duration connectionTimeout) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(replicaUrls)) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(properties.determineUsername());
+            pool.setPassword(properties.determinePassword());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Una réplica caída no debe demorar las lecturas ni impedir el arranque: se excluye y se lee del primario
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            replicaPools.add(pool);
+            replicas.put(name, pool);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, registry);
+    }
+
+    /**
+     * DataSource que usan JPA y JdbcTemplate: difiere la elección de destino hasta la primera consulta
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    public void closeReplicaPools() {
+        replicaPools.forEach(HikariDataSource::close);
+    }
+}
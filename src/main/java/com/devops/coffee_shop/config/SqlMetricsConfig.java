@@ -0,0 +1,45 @@
+package com.devops.coffee_shop.config;
+
+import com.devops.coffee_shop.coffee.metrics.SqlStatementMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve con datasource-proxy el DataSource que usan JPA y JdbcTemplate (el bean "dataSource": el Hikari de
+ * Spring Boot o, con réplicas, el proxy de ReadReplicaConfig) para contar sentencias y filas en SqlStatementMetrics.
+ * Solo ese: envolver también los pools de abajo contaría dos veces cada sentencia. Sin réplicas Flyway migra con
+ * ese mismo bean y sus sentencias se cuentan; con réplicas usa el pool primario (@FlywayDataSource) y no.
+ * Los ResultSet solo se envuelven con coffee.metrics.sql.rows-read.enabled: cada llamada a un getter pasaría por
+ * el proxy y el listener de métodos.
+ */
+@Configuration
+@ConditionalOnProperty(name = "coffee.metrics.sql.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMetricsConfig {
+
+    // static y con ObjectProvider: el listener (y el MeterRegistry) se crean recién al envolver el DataSource
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceProxy(ObjectProvider<SqlStatementMetrics> sqlMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlStatementMetrics listener = sqlMetrics.getObject();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create("coffee", dataSource).listener(listener);
+                if (listener.isCountingRowsRead()) {
+                    builder.methodListener(listener).proxyResultSet();
+                }
+                return builder.build();
+            }
+        };
+    }
+}
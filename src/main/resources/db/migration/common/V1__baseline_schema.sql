@@ -0,0 +1,50 @@
+-- Esquema tal como lo generaba spring.jpa.hibernate.ddl-auto=update.
+-- IF NOT EXISTS: en bases ya creadas por Hibernate (baseline en versión 0) solo agrega lo que falte.
+-- Las tablas con columnas de texto largo están en {vendor}/V1_1: el tipo cambia según la base de datos.
+
+create sequence if not exists orders_seq start with 1 increment by 50;
+
+create table if not exists orders (
+    id bigint not null,
+    customer_name varchar(255) not null,
+    drink varchar(255) not null,
+    quantity integer not null,
+    status varchar(255) not null check (status in ('NEW','IN_PROGRESS','READY','DELIVERED','CANCELED')),
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists products (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    description varchar(500),
+    price numeric(10,2) not null,
+    category varchar(255) not null check (category in ('COFFEE','TEA','PASTRY','SANDWICH','BEVERAGE','DESSERT')),
+    is_available boolean,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table if not exists clients (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    document_number varchar(64) not null,
+    birth_date timestamp(6) not null,
+    is_active boolean,
+    search_key varchar(511),
+    reverse_search_key varchar(511),
+    first_name_lower varchar(255),
+    last_name_lower varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint uk_clients_document_number unique (document_number),
+    constraint uk_clients_name unique (first_name_lower, last_name_lower)
+);
+
+create index if not exists idx_orders_created_at_id on orders (created_at, id);
+create index if not exists idx_orders_status_created_at_id on orders (status, created_at, id);
+create index if not exists idx_clients_search_key on clients (search_key);
+create index if not exists idx_clients_reverse_search_key on clients (reverse_search_key);
@@ -0,0 +1,8 @@
+-- Índices sobre columnas simples, válidos en PostgreSQL y H2.
+-- Los pedidos por estado y por fecha ya los cubren idx_orders_status_created_at_id e idx_orders_created_at_id.
+
+-- ProductRepository.findByCategory, findByCategoryAndAvailableTrue, countByCategory
+create index idx_products_category_available on products (category, is_available);
+
+-- ProductRepository.findByPriceBetween
+create index idx_products_price on products (price);
@@ -0,0 +1,20 @@
+-- Tablas con columnas de texto largo (LONG32VARCHAR en las entidades): clob en H2
+
+create table if not exists idempotency_keys (
+    id varchar(300) not null,
+    fingerprint varchar(64) not null,
+    response_status integer,
+    response_content_type varchar(255),
+    response_location varchar(255),
+    response_body clob,
+    expires_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table if not exists order_rollups (
+    epoch_minute bigint not null,
+    counts clob not null,
+    primary key (epoch_minute)
+);
+
+create index if not exists idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,5 @@
+-- H2 no soporta índices funcionales ni parciales: equivalentes sobre columnas simples de postgresql/V3.
+-- hasPendingOrders usa la primera columna de idx_orders_status_created_at_id.
+
+create index idx_products_available on products (is_available);
+create index idx_clients_active on clients (is_active);
@@ -0,0 +1,36 @@
+-- Índices funcionales, parciales y de patrones: solo PostgreSQL (H2 no los soporta, ver h2/V3).
+
+-- OrderRepository.hasPendingOrders: solo entran los pedidos que siguen abiertos, una fracción pequeña de la tabla
+create index idx_orders_pending on orders (status) where status not in ('DELIVERED', 'CANCELED');
+
+-- ProductRepository.findByAvailableTrue / countByAvailableTrue
+create index idx_products_available on products (id) where is_available;
+
+-- ClientRepository.findByActiveTrue
+create index idx_clients_active on clients (id) where is_active;
+
+-- Consultas derivadas "IgnoreCase" de Spring Data (comparan upper(columna) = upper(?)):
+-- existsByNameIgnoreCase, findByNameIgnoreCase, existsByFirstNameIgnoreCaseAndLastNameIgnoreCase...
+create index idx_products_name_upper on products (upper(name));
+create index idx_clients_name_upper on clients (upper(first_name), upper(last_name));
+
+-- Búsquedas parciales LOWER(col) LIKE '%texto%': un B-tree no sirve para el comodín inicial, un GIN de trigramas sí.
+-- pg_trgm es una extensión "trusted" desde PostgreSQL 13: alcanza con ser dueño de la base de datos.
+create extension if not exists pg_trgm;
+create index idx_products_name_trgm on products using gin (lower(name) gin_trgm_ops);
+create index idx_clients_first_name_trgm on clients using gin (lower(first_name) gin_trgm_ops);
+create index idx_clients_last_name_trgm on clients using gin (lower(last_name) gin_trgm_ops);
+
+-- ClientRepository.findBySearchKeyPrefix (search_key LIKE 'prefijo%'): con una collation distinta de "C"
+-- el B-tree normal no se usa para LIKE; text_pattern_ops sí. Los índices originales quedan sin uso.
+create index idx_clients_search_key_pattern on clients (search_key text_pattern_ops);
+create index idx_clients_reverse_search_key_pattern on clients (reverse_search_key text_pattern_ops);
+drop index if exists idx_clients_search_key;
+drop index if exists idx_clients_reverse_search_key;
+
+-- orders pasó de IDENTITY a orders_seq: en bases creadas antes, la secuencia puede estar por detrás de los IDs
+-- existentes. Solo se corrige si hay IDs por encima del último bloque reservado (allocationSize 50): esos vienen
+-- de IDENTITY, y los bloques que otras instancias tengan en memoria quedan por debajo del nuevo valor.
+select setval('orders_seq', (select max(id) + 1 from orders), false)
+where (select max(id) from orders) >=
+      (select last_value + case when is_called then 50 else 0 end from orders_seq);
@@ -0,0 +1,99 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.intake.OrderIntake;
+import com.devops.coffee_shop.coffee.intake.OrderIntakeFullException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/orders con coffee.orders.intake.mode=async: 202 con Location, 429 con Retry-After
+ * y escritura de los pedidos aceptados al apagar
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:asyncintake;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "coffee.orders.intake.mode=async"})
+@AutoConfigureMockMvc
+class AsyncOrderIntakeTest {
+
+    private static final String ORDER = "{\"customerName\":\"Ana\",\"drink\":\"latte\",\"quantity\":2}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private OrderIntake orderIntake;
+
+    @Test
+    void acceptedOrderPointsToItsLocation() throws Exception {
+        String location = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, org.hamcrest.Matchers.matchesPattern("/api/orders/\\d+")))
+                .andExpect(jsonPath("$.status").value("NEW"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        // El escritor inserta el lote unos milisegundos después
+        long deadline = System.currentTimeMillis() + 5000;
+        while (mockMvc.perform(get(location)).andReturn().getResponse().getStatus() == 404
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Ana"));
+    }
+
+    @Test
+    void fullQueueAsksToRetryLater() throws Exception {
+        doThrow(new OrderIntakeFullException("Demasiados pedidos en espera, reintente en unos segundos"))
+                .when(orderIntake).submit(any());
+        try {
+            mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().string("Demasiados pedidos en espera, reintente en unos segundos"));
+        } finally {
+            reset(orderIntake);
+        }
+    }
+
+    // Los pedidos ya respondidos con 202 están en la base de datos cuando stop() termina
+    @Test
+    @DirtiesContext
+    void stopWritesEveryAcceptedOrder() throws Exception {
+        List<String> locations = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            locations.add(mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                    .andExpect(status().isAccepted())
+                    .andReturn().getResponse().getHeader(HttpHeaders.LOCATION));
+        }
+
+        orderIntake.stop();
+
+        for (String location : locations) {
+            mockMvc.perform(get(location)).andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(ORDER))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+}
@@ -0,0 +1,108 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import com.devops.coffee_shop.coffee.service.ClientService;
+import com.devops.coffee_shop.coffee.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GETs condicionales de productos y clientes: 304 con el ETag vigente y respuesta completa tras un cambio
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditionalget;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Test
+    void productListIsNotModifiedUntilAProductChanges() throws Exception {
+        ProductDto product = productService.createProduct(new ProductDto("Cortado", "Espresso con leche",
+                new BigDecimal("2.80"), ProductCategory.COFFEE));
+        String etag = etagOf("/api/products");
+
+        notModified("/api/products", etag);
+        notModified("/api/products/available", etagOf("/api/products/available"));
+
+        product.setPrice(new BigDecimal("3.10"));
+        productService.updateProduct(product.getId(), product);
+
+        String changed = modified("/api/products", etag);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void productIsNotModifiedUntilItChanges() throws Exception {
+        ProductDto product = productService.createProduct(new ProductDto("Lágrima", "Leche con un poco de café",
+                new BigDecimal("2.50"), ProductCategory.COFFEE));
+        String url = "/api/products/" + product.getId();
+        String etag = etagOf(url);
+
+        notModified(url, etag);
+
+        product.setDescription("Leche caliente con unas gotas de café");
+        productService.updateProduct(product.getId(), product);
+
+        assertNotEquals(etag, modified(url, etag));
+    }
+
+    @Test
+    void clientIsNotModifiedUntilItChanges() throws Exception {
+        Long id = clientService.createClient(new ClientDto("Marta", "Ibáñez", new Date(), "30111222", true)).getId();
+        String url = "/api/clients/" + id;
+        String etag = etagOf(url);
+
+        notModified(url, etag);
+
+        // updated_at se guarda con precisión de microsegundos
+        Thread.sleep(5);
+        clientService.updateClient(id, new ClientDto("Marta", "Ibáñez Soler", new Date(), "30111222", true));
+
+        assertNotEquals(etag, modified(url, etag));
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private void notModified(String url, String etag) throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    // Con un ETag viejo la respuesta es completa y trae el ETag nuevo
+    private String modified(String url, String staleEtag) throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, staleEtag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
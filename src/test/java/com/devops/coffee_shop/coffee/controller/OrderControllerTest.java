@@ -0,0 +1,91 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoints de pedidos del servidor servlet, en modo de ingreso síncrono
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:ordercontroller;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void validOrderIsCreated() throws Exception {
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Ana\",\"drink\":\"latte\",\"quantity\":2}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("NEW"));
+    }
+
+    // Mismos códigos y mensajes que el servidor reactivo (ambos usan OrderService.validateOrder)
+    @Test
+    void invalidOrdersAreBadRequests() throws Exception {
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Ana\",\"drink\":\"latte\",\"quantity\":0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("La cantidad debe ser mayor a 0"));
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"drink\":\"latte\",\"quantity\":1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("El nombre del cliente es obligatorio"));
+    }
+
+    // Cancelar desde READY descuenta READY en /stats: el estado anterior sale del UPDATE condicionado
+    @Test
+    void statusChangesMoveStatsCounters() throws Exception {
+        String body = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Luis\",\"drink\":\"mocha\",\"quantity\":1}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(body, "$.id")).longValue();
+
+        mockMvc.perform(patch("/api/orders/{id}/status/IN_PROGRESS", id)).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/orders/{id}/status/READY", id)).andExpect(status().isOk());
+        long readyBefore = countByStatus("READY");
+        long canceledBefore = countByStatus("CANCELED");
+
+        mockMvc.perform(patch("/api/orders/{id}/status/CANCELED", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELED"));
+
+        assertThat(countByStatus("READY")).isEqualTo(readyBefore - 1);
+        assertThat(countByStatus("CANCELED")).isEqualTo(canceledBefore + 1);
+    }
+
+    @Test
+    void invalidTransitionsAreConflictsAndUnknownOrdersNotFound() throws Exception {
+        String body = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Eva\",\"drink\":\"té\",\"quantity\":1}"))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(body, "$.id")).longValue();
+
+        mockMvc.perform(patch("/api/orders/{id}/status/DELIVERED", id))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Transición no permitida para el pedido " + id + ": NEW -> DELIVERED"));
+        mockMvc.perform(patch("/api/orders/{id}/status/IN_PROGRESS", 999_999_999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private long countByStatus(String status) throws Exception {
+        String stats = mockMvc.perform(get("/api/orders/stats")).andReturn().getResponse().getContentAsString();
+        Number count = JsonPath.read(stats, "$.byStatus." + status);
+        return count == null ? 0 : count.longValue();
+    }
+}
@@ -0,0 +1,136 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.repository.OrderRepository;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paginación por cursor (keyset) de GET /api/orders/page
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderpage;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class OrderPageTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Los pedidos 102 y 103 comparten createdAt; 100 y 106 quedan fuera del día consultado
+    @BeforeEach
+    void insertOrders() {
+        if (orderRepository.existsById(101L)) {
+            return;
+        }
+        orderRepository.insertAll(List.of(
+                order(100, DAY.minusMinutes(1)),
+                order(101, DAY.plusHours(10)),
+                order(103, DAY.plusHours(10).plusMinutes(5)),
+                order(102, DAY.plusHours(10).plusMinutes(5)),
+                order(104, DAY.plusHours(10).plusMinutes(10)),
+                order(105, DAY.plusHours(10).plusMinutes(20)),
+                order(106, DAY.plusDays(1))));
+    }
+
+    @Test
+    void cursorWalksEveryOrderOnce() throws Exception {
+        List<List<Long>> pages = walk(() -> page(DAY, DAY.plusDays(1)).param("size", "2"));
+
+        assertEquals(List.of(List.of(101L, 102L), List.of(103L, 104L), List.of(105L)), pages);
+    }
+
+    // 102 y 103 tienen el mismo createdAt y quedan en páginas distintas: el id desempata sin saltear ni repetir
+    @Test
+    void ordersWithSameCreatedAtAreSplitAcrossPages() throws Exception {
+        List<List<Long>> pages = walk(() -> page(DAY.plusHours(10).plusMinutes(5), DAY.plusDays(1)).param("size", "1"));
+
+        assertEquals(List.of(List.of(102L), List.of(103L), List.of(104L), List.of(105L)), pages);
+    }
+
+    @Test
+    void cursorStaysWithinFromAndTo() throws Exception {
+        List<List<Long>> pages = walk(() -> page(DAY.plusHours(10).plusMinutes(5), DAY.plusHours(10).plusMinutes(20))
+                .param("size", "2"));
+        assertEquals(List.of(List.of(102L, 103L), List.of(104L)), pages);
+
+        // Un cursor anterior a from no adelanta el inicio del rango
+        String early = cursor(DAY.plusHours(10), 101);
+        String body = mockMvc.perform(page(DAY.plusHours(10).plusMinutes(10), DAY.plusDays(1)).param("cursor", early))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(List.of(104L, 105L), ids(body));
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        for (String cursor : List.of("no-es-base64!", cursor("ayer", 1), encode("2020-01-01T10:00|x"), encode("sin separador"))) {
+            mockMvc.perform(page(DAY, DAY.plusDays(1)).param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("Cursor inválido: " + cursor));
+        }
+    }
+
+    private static MockHttpServletRequestBuilder page(LocalDateTime from, LocalDateTime to) {
+        return get("/api/orders/page").param("from", from.toString()).param("to", to.toString());
+    }
+
+    // Sigue nextCursor hasta la última página; cada petición repite los demás parámetros
+    private List<List<Long>> walk(Supplier<MockHttpServletRequestBuilder> request) throws Exception {
+        List<List<Long>> pages = new ArrayList<>();
+        String body = mockMvc.perform(request.get()).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        pages.add(ids(body));
+        String next = JsonPath.read(body, "$.nextCursor");
+        while (next != null) {
+            body = mockMvc.perform(request.get().param("cursor", next))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            pages.add(ids(body));
+            next = JsonPath.read(body, "$.nextCursor");
+        }
+        return pages;
+    }
+
+    private static List<Long> ids(String body) {
+        List<Number> ids = JsonPath.read(body, "$.items[*].id");
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    private static String cursor(Object createdAt, long id) {
+        return encode(createdAt + "|" + id);
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Order order(long id, LocalDateTime createdAt) {
+        Order order = new Order("Cliente " + id, "latte", 1);
+        order.setId(id);
+        order.setStatus(OrderStatus.NEW);
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+}
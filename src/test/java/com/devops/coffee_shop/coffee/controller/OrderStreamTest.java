@@ -0,0 +1,90 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Stream SSE de pedidos filtrado por estado (pantalla de retiro suscrita a READY)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:orderstream;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class OrderStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void readySubscriberSeesOrdersEnteringAndLeavingReady() throws Exception {
+        double subscribersBefore = registry.get("coffee_order_stream_subscribers").gauge().value();
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/orders/stream").param("status", "READY"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        assertEquals(subscribersBefore + 1, registry.get("coffee_order_stream_subscribers").gauge().value());
+
+        // Nunca pasa por READY: no le interesa a la pantalla de retiro
+        Long canceled = orderService.createOrder(order("Luis")).getId();
+        orderService.updateStatus(canceled, OrderStatus.IN_PROGRESS);
+        orderService.updateStatus(canceled, OrderStatus.CANCELED);
+
+        Long delivered = orderService.createOrder(order("Ana")).getId();
+        orderService.updateStatus(delivered, OrderStatus.IN_PROGRESS);
+        orderService.updateStatus(delivered, OrderStatus.READY);
+        orderService.updateStatus(delivered, OrderStatus.DELIVERED);
+
+        List<String> events = awaitEvents(stream, 2);
+        assertEquals(2, events.size());
+        assertEquals(List.of("READY", "DELIVERED"), events.stream()
+                .map(event -> event.replaceAll("(?s).*\"status\":\"(\\w+)\".*", "$1"))
+                .toList());
+        events.forEach(event -> assertTrue(event.contains("event:order-status-changed")
+                && event.contains("\"id\":" + delivered + ",")));
+    }
+
+    // Los eventos llegan desde el pool de envío; se espera a que estén escritos en la respuesta
+    private static List<String> awaitEvents(MockHttpServletResponse stream, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events(stream).size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        // Margen para que aparezca cualquier evento de más
+        Thread.sleep(100);
+        return events(stream);
+    }
+
+    private static List<String> events(MockHttpServletResponse stream) throws Exception {
+        return Arrays.stream(stream.getContentAsString(StandardCharsets.UTF_8).split("\n\n"))
+                .filter(event -> event.contains("data:"))
+                .toList();
+    }
+
+    private static OrderDto order(String customerName) {
+        OrderDto dto = new OrderDto();
+        dto.setCustomerName(customerName);
+        dto.setDrink("latte");
+        dto.setQuantity(1);
+        return dto;
+    }
+}
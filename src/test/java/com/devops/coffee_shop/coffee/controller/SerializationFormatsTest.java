@@ -0,0 +1,129 @@
+package com.devops.coffee_shop.coffee.controller;
+
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import com.devops.coffee_shop.coffee.service.ProductService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Negociación de JSON/CBOR/Smile en /api/products y compresión gzip del servidor embebido
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:formats;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class SerializationFormatsTest {
+
+    private static final TypeReference<List<ProductDto>> PRODUCTS = new TypeReference<>() {};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @BeforeEach
+    void createProducts() {
+        // Suficientes productos para superar server.compression.min-response-size
+        for (int i = productService.getAllProducts().size(); i < 40; i++) {
+            productService.createProduct(new ProductDto("Producto " + i, "Descripción del producto " + i,
+                    new BigDecimal("3.50"), ProductCategory.COFFEE));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/json", "application/cbor", "application/x-jackson-smile"})
+    void productsAreServedInTheAcceptedFormat(String accept) throws Exception {
+        MediaType mediaType = MediaType.parseMediaType(accept);
+
+        MvcResult result = mockMvc.perform(get("/api/products").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn();
+
+        List<ProductDto> products = mapperFor(accept).readValue(result.getResponse().getContentAsByteArray(), PRODUCTS);
+        assertEquals(productService.getAllProducts().size(), products.size());
+        assertTrue(products.stream().allMatch(p -> p.getName() != null && p.getPrice() != null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"application/json", "application/cbor", "application/x-jackson-smile"})
+    void largeResponsesAreGzipped(String accept) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products"))
+                .header("Accept", accept)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            assertEquals(productService.getAllProducts().size(), mapperFor(accept).readValue(body, PRODUCTS).size());
+        }
+    }
+
+    @Test
+    void smallResponsesAreNotCompressed() throws Exception {
+        Long id = productService.getAllProducts().get(0).getId();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/" + id))
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(id, jsonMapper.readValue(response.body(), ProductDto.class).getId());
+    }
+
+    private ObjectMapper mapperFor(String accept) {
+        return switch (accept) {
+            case "application/cbor" -> cborConverter.getObjectMapper();
+            case "application/x-jackson-smile" -> smileConverter.getObjectMapper();
+            default -> jsonMapper;
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.devops.coffee_shop.coffee.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ruteo entre un primario y dos réplicas, cada uno una base H2 en memoria distinta
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FailingDataSource secondReplica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", database("replica-0"));
+        secondReplica = new FailingDataSource(database("replica-1"));
+        replicas.put("replica-1", secondReplica);
+
+        use(new ReplicaRoutingDataSource(primary, replicas, registry));
+    }
+
+    private void use(ReplicaRoutingDataSource routingDataSource) {
+        routing = routingDataSource;
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    void writesGoToPrimaryAndReadOnlyTransactionsRotateAcrossReplicas() {
+        assertEquals("primary", writeTransaction.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+
+        List<String> reads = List.of(readFromReplica(), readFromReplica(), readFromReplica(), readFromReplica());
+        assertEquals(List.of("replica-0", "replica-1", "replica-0", "replica-1"), reads);
+        assertEquals(2.0, registry.get("coffee_datasource_connections_total").tag("target", "replica-1").counter().count());
+    }
+
+    @Test
+    void failingReplicaIsEjectedAndReadmittedByHealthCheck() {
+        secondReplica.failing = true;
+        List<String> reads = List.of(readFromReplica(), readFromReplica(), readFromReplica(), readFromReplica());
+        // La lectura que tocaba a replica-1 cae al primario; después solo queda replica-0
+        assertEquals(List.of("replica-0", "primary", "replica-0", "replica-0"), reads);
+        assertEquals(List.of("replica-0"), routing.getHealthyReplicas());
+        assertEquals(0.0, registry.get("coffee_datasource_replica_up").tag("target", "replica-1").gauge().value());
+        assertEquals(1.0, registry.get("coffee_datasource_replica_ejections_total").tag("target", "replica-1").counter().count());
+
+        routing.checkReplicas();
+        assertEquals(List.of("replica-0"), routing.getHealthyReplicas());
+
+        secondReplica.failing = false;
+        routing.checkReplicas();
+        assertEquals(List.of("replica-0", "replica-1"), routing.getHealthyReplicas());
+        assertEquals(1.0, registry.get("coffee_datasource_replica_up").tag("target", "replica-1").gauge().value());
+    }
+
+    @Test
+    void readsFallBackToPrimaryWithoutHealthyReplicas() {
+        secondReplica.failing = true;
+        use(new ReplicaRoutingDataSource(database("primary"), Map.of("replica-1", secondReplica), new SimpleMeterRegistry()));
+
+        assertEquals(List.of(), routing.getHealthyReplicas());
+        assertEquals("primary", readFromReplica());
+    }
+
+    private String readFromReplica() {
+        return readOnlyTransaction.execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20))");
+        jdbc.update("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+
+    /**
+     * Réplica que se puede "apagar" para simular una caída
+     */
+    private static final class FailingDataSource extends DelegatingDataSource {
+        private volatile boolean failing;
+
+        private FailingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Réplica no disponible");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.devops.coffee_shop.coffee.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatusTest {
+
+    @Test
+    void followsTheHappyPath() {
+        assertTrue(OrderStatus.NEW.canTransitionTo(OrderStatus.IN_PROGRESS));
+        assertTrue(OrderStatus.IN_PROGRESS.canTransitionTo(OrderStatus.READY));
+        assertTrue(OrderStatus.READY.canTransitionTo(OrderStatus.DELIVERED));
+    }
+
+    @Test
+    void finalStatesCannotChange() {
+        for (OrderStatus next : OrderStatus.values()) {
+            assertFalse(OrderStatus.DELIVERED.canTransitionTo(next));
+            assertFalse(OrderStatus.CANCELED.canTransitionTo(next));
+        }
+    }
+
+    @Test
+    void predecessorsAreTheInverseOfTransitions() {
+        assertEquals(Set.of(OrderStatus.READY), OrderStatus.DELIVERED.allowedPredecessors());
+        assertEquals(Set.of(OrderStatus.NEW, OrderStatus.IN_PROGRESS, OrderStatus.READY),
+                OrderStatus.CANCELED.allowedPredecessors());
+        assertTrue(OrderStatus.NEW.allowedPredecessors().isEmpty());
+    }
+}
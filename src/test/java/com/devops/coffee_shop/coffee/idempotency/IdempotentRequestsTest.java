@@ -0,0 +1,160 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Idempotency-Key en POST /api/orders del servidor servlet
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotency;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class IdempotentRequestsTest {
+
+    private static final String ORDER = "{\"customerName\":\"Ana\",\"drink\":\"latte\",\"quantity\":2}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void retryWithSameBodyReplaysTheOriginalResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String first = postOrder(key, MediaType.APPLICATION_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        postOrder(key, MediaType.APPLICATION_JSON)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(content().json(first, true));
+    }
+
+    @Test
+    void sameKeyWithAnotherBodyIsUnprocessable() throws Exception {
+        String key = UUID.randomUUID().toString();
+        postOrder(key, MediaType.APPLICATION_JSON).andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/orders")
+                        .header(IdempotentRequests.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Ana\",\"drink\":\"latte\",\"quantity\":3}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string("La Idempotency-Key ya se usó con otro contenido"));
+    }
+
+    @Test
+    void invalidKeyIsBadRequest() throws Exception {
+        postOrder(" ", MediaType.APPLICATION_JSON).andExpect(status().isBadRequest());
+        postOrder("k".repeat(256), MediaType.APPLICATION_JSON).andExpect(status().isBadRequest());
+    }
+
+    // Un reintento que llega mientras la primera petición se ejecuta no la repite
+    @Test
+    void requestInFlightIsConflict() {
+        String key = UUID.randomUUID().toString();
+        Map<String, Object> body = Map.of("pedido", 1);
+        AtomicReference<ResponseEntity<?>> concurrent = new AtomicReference<>();
+
+        ResponseEntity<?> response = idempotentRequests.execute("test", key, body, () -> {
+            concurrent.set(idempotentRequests.execute("test", key, body, () -> ResponseEntity.ok("duplicado")));
+            return ResponseEntity.ok("original");
+        });
+
+        assertEquals("original", response.getBody());
+        assertEquals(HttpStatus.CONFLICT, concurrent.get().getStatusCode());
+        assertEquals("original", idempotentRequests.execute("test", key, body, () -> ResponseEntity.ok("otra")).getBody());
+    }
+
+    // Los errores del servidor no se guardan: el reintento vuelve a ejecutarse
+    @Test
+    void serverErrorsReleaseTheKey() {
+        String key = UUID.randomUUID().toString();
+        Map<String, Object> body = Map.of("pedido", 2);
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<?> failed = idempotentRequests.execute("test", key, body, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("sin base de datos");
+        });
+        assertThrows(IllegalStateException.class, () -> idempotentRequests.execute("test", key, body, () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("fallo inesperado");
+        }));
+        ResponseEntity<?> retried = idempotentRequests.execute("test", key, body, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body("creado");
+        });
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, failed.getStatusCode());
+        assertEquals(HttpStatus.CREATED, retried.getStatusCode());
+        assertEquals(3, executions.get());
+    }
+
+    // El reintento se serializa con el formato que negocia, no siempre como JSON
+    @ParameterizedTest
+    @ValueSource(strings = {"application/cbor", "application/x-jackson-smile"})
+    void replayKeepsTheNegotiatedFormat(String accept) throws Exception {
+        MediaType mediaType = MediaType.parseMediaType(accept);
+        ObjectMapper mapper = accept.equals("application/cbor")
+                ? cborConverter.getObjectMapper() : smileConverter.getObjectMapper();
+        String key = UUID.randomUUID().toString();
+
+        byte[] first = postOrder(key, mediaType)
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] replayed = postOrder(key, mediaType)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        OrderDto created = mapper.readValue(first, OrderDto.class);
+        OrderDto replay = mapper.readValue(replayed, OrderDto.class);
+        assertEquals(created.getId(), replay.getId());
+        assertEquals(created.getCreatedAt(), replay.getCreatedAt());
+        assertEquals("Ana", replay.getCustomerName());
+    }
+
+    private ResultActions postOrder(String key, MediaType accept) throws Exception {
+        return mockMvc.perform(post("/api/orders")
+                .header(IdempotentRequests.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(accept)
+                .content(ORDER));
+    }
+}
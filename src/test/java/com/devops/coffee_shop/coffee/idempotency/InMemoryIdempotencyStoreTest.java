@@ -0,0 +1,51 @@
+package com.devops.coffee_shop.coffee.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryIdempotencyStoreTest {
+
+    private static final IdempotentResponse CREATED = new IdempotentResponse(201, null, null, null);
+
+    @Test
+    void leastRecentlyUsedKeyIsEvictedAtMaxEntries() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(new SimpleMeterRegistry(), 2,
+                Duration.ofHours(1), Duration.ofSeconds(30));
+        complete(store, "a");
+        complete(store, "b");
+
+        // Consultar "a" la vuelve la más reciente: al entrar "c" sale "b"
+        assertEquals(IdempotencyClaim.Outcome.REPLAY, store.claim("orders", "a", "fp").getOutcome());
+        complete(store, "c");
+
+        assertEquals(2, store.size());
+        assertEquals(IdempotencyClaim.Outcome.REPLAY, store.claim("orders", "a", "fp").getOutcome());
+        assertEquals(IdempotencyClaim.Outcome.NEW, store.claim("orders", "b", "fp").getOutcome());
+    }
+
+    @Test
+    void expiredKeysCanBeReusedAndArePurged() throws InterruptedException {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(new SimpleMeterRegistry(), 100,
+                Duration.ofMillis(50), Duration.ofMillis(50));
+        complete(store, "a");
+        store.claim("orders", "b", "fp");
+        assertEquals(IdempotencyClaim.Outcome.IN_FLIGHT, store.claim("orders", "b", "fp").getOutcome());
+
+        Thread.sleep(80);
+
+        // Una reserva abandonada también vence (in-flight-timeout)
+        assertEquals(IdempotencyClaim.Outcome.NEW, store.claim("orders", "b", "fp").getOutcome());
+        store.purgeExpired();
+        assertEquals(1, store.size());
+        assertEquals(IdempotencyClaim.Outcome.NEW, store.claim("orders", "a", "otro").getOutcome());
+    }
+
+    private static void complete(InMemoryIdempotencyStore store, String key) {
+        store.claim("orders", key, "fp");
+        store.complete("orders", key, "fp", CREATED);
+    }
+}
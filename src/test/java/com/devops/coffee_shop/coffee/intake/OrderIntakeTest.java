@@ -0,0 +1,227 @@
+package com.devops.coffee_shop.coffee.intake;
+
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Escritor por lotes de OrderIntake con un OrderService simulado: ningún pedido aceptado se pierde
+ * mientras la base de datos no responde, y un dato inválido solo descarta su propia fila.
+ */
+class OrderIntakeTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Long> written = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private OrderIntake intake;
+
+    @BeforeEach
+    void prepareOrders() {
+        when(orderService.prepareOrder(any())).thenAnswer(invocation -> {
+            OrderDto dto = invocation.getArgument(0);
+            Order order = new Order(dto.getCustomerName(), dto.getDrink(), dto.getQuantity());
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+    }
+
+    @AfterEach
+    void stopIntake() {
+        if (intake != null && intake.isRunning()) {
+            intake.stop();
+        }
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        persistBlockingFirstBatch(writing, release);
+        intake = start(1, Duration.ofSeconds(5));
+
+        intake.submit(dto("Ana"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        intake.submit(dto("Luis"));
+        assertThrows(OrderIntakeFullException.class, () -> intake.submit(dto("Eva")));
+        assertEquals(1, registry.get("coffee_order_intake_rejected_total").counter().count());
+
+        release.countDown();
+        intake.stop();
+        assertEquals(List.of(1L, 2L), written);
+    }
+
+    @Test
+    void stopDrainsQueueAndThenRejects() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        persistBlockingFirstBatch(writing, release);
+        intake = start(100, Duration.ofSeconds(5));
+
+        intake.submit(dto("Ana"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            intake.submit(dto("Cliente " + i));
+        }
+        Thread stopper = new Thread(intake::stop);
+        stopper.start();
+        while (intake.isRunning()) {
+            Thread.onSpinWait();
+        }
+        assertThrows(OrderIntakeFullException.class, () -> intake.submit(dto("Tarde")));
+
+        release.countDown();
+        stopper.join(5000);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), written);
+        assertEquals(0, intake.getQueueDepth());
+    }
+
+    @Test
+    void keepsRetryingWhileDatabaseIsDown() {
+        AtomicInteger failures = new AtomicInteger(3);
+        doAnswer(invocation -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new CannotGetJdbcConnectionException("Sin conexión");
+            }
+            return record(invocation.getArgument(0));
+        }).when(orderService).persistAcceptedOrders(anyList());
+        intake = start(100, Duration.ofSeconds(5));
+
+        intake.submit(dto("Ana"));
+        intake.stop();
+
+        assertEquals(List.of(1L), written);
+        assertEquals(0, registry.get("coffee_order_intake_failed_total").counter().count());
+    }
+
+    // Una interrupción durante la espera no adelanta el reintento siguiente
+    @Test
+    void interruptedBackoffStillWaits() throws Exception {
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        List<Long> attempts = new CopyOnWriteArrayList<>();
+        CountDownLatch failed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            attempts.add(System.nanoTime());
+            if (attempts.size() < 3) {
+                writer.set(Thread.currentThread());
+                failed.countDown();
+                throw new CannotGetJdbcConnectionException("Sin conexión");
+            }
+            return record(invocation.getArgument(0));
+        }).when(orderService).persistAcceptedOrders(anyList());
+        intake = start(100, Duration.ofSeconds(5));
+
+        intake.submit(dto("Ana"));
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        writer.get().interrupt();
+        intake.stop();
+
+        assertEquals(List.of(1L), written);
+        assertEquals(3, attempts.size());
+        // Esperas de 200 ms y 400 ms entre los tres intentos
+        assertTrue(attempts.get(2) - attempts.get(0) >= TimeUnit.MILLISECONDS.toNanos(600));
+    }
+
+    @Test
+    void invalidRowIsDiscardedAlone() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger batches = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<Order> batch = invocation.getArgument(0);
+            if (batches.getAndIncrement() == 0) {
+                writing.countDown();
+                release.await();
+            }
+            if (batch.stream().anyMatch(order -> order.getQuantity() > 50)) {
+                throw new DataIntegrityViolationException("check_quantity");
+            }
+            return record(batch);
+        }).when(orderService).persistAcceptedOrders(anyList());
+        intake = start(100, Duration.ofSeconds(5));
+
+        intake.submit(dto("Ana"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        intake.submit(dto("Luis"));
+        OrderDto invalid = dto("Eva");
+        invalid.setQuantity(99);
+        intake.submit(invalid);
+        intake.submit(dto("Juan"));
+        release.countDown();
+        intake.stop();
+
+        assertEquals(List.of(1L, 2L, 4L), written);
+        assertEquals(1, registry.get("coffee_order_intake_failed_total").counter().count());
+    }
+
+    // Con la base de datos caída el apagado no se bloquea: abandona lo pendiente y lo cuenta
+    @Test
+    void stopGivesUpAfterShutdownTimeout() {
+        doAnswer(invocation -> {
+            throw new CannotGetJdbcConnectionException("Sin conexión");
+        }).when(orderService).persistAcceptedOrders(anyList());
+        intake = start(100, Duration.ofMillis(300));
+
+        intake.submit(dto("Ana"));
+        intake.submit(dto("Luis"));
+        intake.stop();
+
+        assertTrue(written.isEmpty());
+        assertEquals(2, registry.get("coffee_order_intake_failed_total").counter().count());
+    }
+
+    private void persistBlockingFirstBatch(CountDownLatch writing, CountDownLatch release) {
+        AtomicInteger batches = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (batches.getAndIncrement() == 0) {
+                writing.countDown();
+                release.await();
+            }
+            return record(invocation.getArgument(0));
+        }).when(orderService).persistAcceptedOrders(anyList());
+    }
+
+    private Void record(List<Order> batch) {
+        batch.forEach(order -> written.add(order.getId()));
+        return null;
+    }
+
+    private OrderIntake start(int capacity, Duration shutdownTimeout) {
+        OrderIntake started = new OrderIntake(orderService, registry, capacity, 500, Duration.ofMillis(10),
+                Duration.ofSeconds(1), shutdownTimeout);
+        started.start();
+        return started;
+    }
+
+    private static OrderDto dto(String customerName) {
+        OrderDto dto = new OrderDto();
+        dto.setCustomerName(customerName);
+        dto.setDrink("latte");
+        dto.setQuantity(1);
+        return dto;
+    }
+}
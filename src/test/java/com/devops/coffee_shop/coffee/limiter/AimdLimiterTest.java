@@ -0,0 +1,71 @@
+package com.devops.coffee_shop.coffee.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsWhenLimitIsReachedAndAdmitsAgainAfterRelease() {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, THRESHOLD, 0.5);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void fastResponsesGrowTheLimitOnlyWhileItIsUsed() {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 5, THRESHOLD, 0.5);
+
+        // Una sola petición en curso con límite 4: no hay evidencia de que haga falta más
+        limiter.tryAcquire();
+        limiter.onComplete(System.nanoTime(), false);
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            long start = System.nanoTime();
+            limiter.onComplete(start, false);
+            limiter.onComplete(start, false);
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void slowOrFailedResponsesShrinkTheLimitOncePerWindow() throws InterruptedException {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 10, TimeUnit.MILLISECONDS.toNanos(5), 0.5);
+        long slowStart = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        Thread.sleep(20);
+        // Cuatro respuestas lentas de la misma ráfaga: una sola reducción
+        for (int i = 0; i < 4; i++) {
+            limiter.onComplete(slowStart, false);
+        }
+        assertEquals(4, limiter.getLimit());
+
+        // Una petición iniciada después de la reducción que falla vuelve a reducir, hasta el mínimo
+        limiter.tryAcquire();
+        limiter.onComplete(System.nanoTime(), true);
+        assertEquals(2, limiter.getLimit());
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.onComplete(System.nanoTime(), true);
+        }
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
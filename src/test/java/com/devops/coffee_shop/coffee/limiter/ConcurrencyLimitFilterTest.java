@@ -0,0 +1,130 @@
+package com.devops.coffee_shop.coffee.limiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El filtro sin contexto de Spring: el grupo orders con límite fijo 1, y las peticiones "concurrentes" se
+ * hacen desde dentro de la cadena de otra que todavía ocupa su lugar
+ */
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void createFilter() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("coffee.limiter.retry-after", "2s")
+                .withProperty("coffee.limiter.orders.initial-limit", "1")
+                .withProperty("coffee.limiter.orders.min-limit", "1")
+                .withProperty("coffee.limiter.orders.max-limit", "1")
+                .withProperty("coffee.limiter.clients.initial-limit", "10")
+                .withProperty("coffee.limiter.clients.latency-threshold", "1m");
+        registry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(environment, registry);
+    }
+
+    @Test
+    void rejectsOverTheGroupLimitWith503AndRetryAfter() throws Exception {
+        Map<String, MockHttpServletResponse> nested = whileHolding("/api/orders", "/api/orders/5");
+
+        MockHttpServletResponse rejected = nested.get("/api/orders/5");
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertEquals(1, registry.get("coffee_limiter_requests_total")
+                .tags("group", "orders", "result", "rejected").counter().count());
+
+        // Terminada la primera, el lugar queda libre
+        assertEquals(200, send("/api/orders/5").getStatus());
+    }
+
+    @Test
+    void eachGroupHasItsOwnLimit() throws Exception {
+        Map<String, MockHttpServletResponse> nested = whileHolding("/api/orders", "/api/products", "/api/clients/1");
+
+        assertEquals(200, nested.get("/api/products").getStatus());
+        assertEquals(200, nested.get("/api/clients/1").getStatus());
+    }
+
+    @Test
+    void healthStreamAndExportsAreNotLimited() throws Exception {
+        Map<String, MockHttpServletResponse> nested = whileHolding("/api/orders",
+                "/api/orders/health", "/api/orders/stream", "/api/orders/export");
+
+        nested.values().forEach(response -> assertEquals(200, response.getStatus()));
+        assertTrue(filter.shouldNotFilter(request("/api/orders/stream")));
+        assertTrue(filter.shouldNotFilter(request("/actuator/health")));
+        assertEquals(0, registry.get("coffee_limiter_requests_total")
+                .tags("group", "orders", "result", "rejected").counter().count());
+    }
+
+    @Test
+    void asyncRequestsOnlyReleaseTheirPermit() throws Exception {
+        // Una respuesta 500 síncrona baja el límite (cuenta como sobrecarga)
+        filter.doFilter(request("/api/clients"), new MockHttpServletResponse(), (req, res) ->
+                ((MockHttpServletResponse) res).setStatus(500));
+        double limit = limit("clients");
+        assertTrue(limit < 10);
+
+        // La parte síncrona de una petición asíncrona no es su latencia: solo libera el lugar
+        MockHttpServletRequest async = request("/api/clients");
+        async.setAsyncSupported(true);
+        filter.doFilter(async, new MockHttpServletResponse(), (req, res) -> {
+            req.startAsync();
+            ((MockHttpServletResponse) res).setStatus(500);
+        });
+
+        assertTrue(async.isAsyncStarted());
+        assertEquals(limit, limit("clients"));
+        assertEquals(0, registry.get("coffee_limiter_in_flight").tag("group", "clients").gauge().value());
+    }
+
+    /**
+     * Ocupa el lugar de holder y, dentro de su cadena, envía las demás peticiones
+     */
+    private Map<String, MockHttpServletResponse> whileHolding(String holder, String... paths) throws Exception {
+        Map<String, MockHttpServletResponse> responses = new LinkedHashMap<>();
+        FilterChain chain = (req, res) -> {
+            for (String path : paths) {
+                responses.put(path, send(path));
+            }
+        };
+        MockHttpServletResponse held = new MockHttpServletResponse();
+        filter.doFilter(request(holder), held, chain);
+        assertEquals(200, held.getStatus());
+        return responses;
+    }
+
+    private MockHttpServletResponse send(String path) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(path), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private double limit(String group) {
+        return registry.get("coffee_limiter_limit").tag("group", group).gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
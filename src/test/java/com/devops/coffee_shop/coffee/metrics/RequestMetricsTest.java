@@ -0,0 +1,81 @@
+package com.devops.coffee_shop.coffee.metrics;
+
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * coffee_service_* por método de servicio y coffee_sql_* por petición, contadas en el DataSource real
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "coffee.metrics.sql.rows-read.enabled=true"
+})
+@AutoConfigureMockMvc
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void servicesAreTimedWithSloBucketsAndFailuresTaggedByException() {
+        long createdBefore = serviceCalls("createOrder", "none");
+        long notFoundBefore = serviceCalls("updateStatus", "IllegalArgumentException");
+
+        orderService.createOrder(order("Ana"));
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateStatus(999_999_999L, null));
+
+        assertEquals(createdBefore + 1, serviceCalls("createOrder", "none"));
+        assertEquals(notFoundBefore + 1, serviceCalls("updateStatus", "IllegalArgumentException"));
+        Timer created = registry.get("coffee_service").tags("method", "createOrder", "exception", "none").timer();
+        assertTrue(created.takeSnapshot().histogramCounts().length > 0);
+    }
+
+    @Test
+    void statementsAndRowsAreRecordedPerRequestByRouteTemplate() throws Exception {
+        OrderDto order = orderService.createOrder(order("Beto"));
+
+        mockMvc.perform(get("/api/orders/{id}", order.getId())).andExpect(status().isOk());
+
+        DistributionSummary statements = registry.get("coffee_sql_statements_per_request")
+                .tags("method", "GET", "uri", "/api/orders/{id}").summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertTrue(registry.get("coffee_sql_rows_per_request")
+                .tags("uri", "/api/orders/{id}", "operation", "read").summary().totalAmount() >= 1);
+        assertTrue(registry.get("coffee_sql_statements_total").tag("type", "insert").counter().count() >= 1);
+    }
+
+    private long serviceCalls(String method, String exception) {
+        Timer timer = registry.find("coffee_service")
+                .tags("service", "OrderService", "method", method, "exception", exception).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static OrderDto order(String customerName) {
+        OrderDto dto = new OrderDto();
+        dto.setCustomerName(customerName);
+        dto.setDrink("latte");
+        dto.setQuantity(1);
+        return dto;
+    }
+}
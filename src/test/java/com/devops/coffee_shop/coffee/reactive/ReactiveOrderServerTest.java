@@ -0,0 +1,147 @@
+package com.devops.coffee_shop.coffee.reactive;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.idempotency.IdempotentRequests;
+import com.devops.coffee_shop.coffee.service.OrderService;
+import com.devops.coffee_shop.coffee.stats.OrderStatusCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Servidor reactivo de pedidos sobre la misma base H2 que usa JPA: R2DBC y Hibernate comparten tabla y secuencia
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "coffee.reactive.enabled=true",
+        "coffee.reactive.port=0",
+        "coffee.reactive.r2dbc-url=r2dbc:h2:mem:///reactive?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class ReactiveOrderServerTest {
+
+    @Autowired
+    private ReactiveOrderServer server;
+
+    @Autowired
+    private ReactiveOrderStream orderStream;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort()).build();
+    }
+
+    @Test
+    void createsReadsAndAdvancesOrdersSharedWithTheServletStack() {
+        long inProgressBefore = orderStatusCounters.count(OrderStatus.IN_PROGRESS);
+        OrderDto created = create("Ana", null).expectStatus().isCreated()
+                .expectBody(OrderDto.class).returnResult().getResponseBody();
+        assertNotNull(created);
+        assertEquals(OrderStatus.NEW, created.getStatus());
+
+        // Hibernate ve el pedido insertado por R2DBC y sus IDs no se pisan
+        assertEquals("Ana", orderService.getOrderById(created.getId()).orElseThrow().getCustomerName());
+        OrderDto fromJpa = orderService.createOrder(order("Beto"));
+        assertNotEquals(created.getId(), fromJpa.getId());
+
+        client.get().uri("/api/orders/{id}", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.customerName").isEqualTo("Ana");
+        client.patch().uri("/api/orders/{id}/status/DELIVERED", created.getId()).exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        client.patch().uri("/api/orders/{id}/status/IN_PROGRESS", created.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.status").isEqualTo("IN_PROGRESS");
+        client.get().uri("/api/orders/{id}", 999_999_999L).exchange().expectStatus().isNotFound();
+        create(" ", null).expectStatus().isBadRequest();
+
+        // Los eventos se publican sin transacción y los contadores en memoria igual los reciben
+        assertEquals(inProgressBefore + 1, orderStatusCounters.count(OrderStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void retriesWithTheSameIdempotencyKeyReplayTheOriginalOrder() {
+        OrderDto first = create("Carla", "reactive-key-1").expectStatus().isCreated()
+                .expectBody(OrderDto.class).returnResult().getResponseBody();
+        OrderDto replayed = create("Carla", "reactive-key-1").expectStatus().isCreated()
+                .expectHeader().valueEquals(IdempotentRequests.REPLAYED_HEADER, "true")
+                .expectBody(OrderDto.class).returnResult().getResponseBody();
+        assertEquals(first.getId(), replayed.getId());
+    }
+
+    @Test
+    void idsOutOfRangeAreBadRequests() {
+        client.get().uri("/api/orders/99999999999999999999").exchange().expectStatus().isBadRequest();
+        client.patch().uri("/api/orders/99999999999999999999/status/READY").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void streamDeliversOrdersEnteringAndLeavingTheRequestedStatuses() throws Exception {
+        OrderDto order = orderService.createOrder(order("Dora"));
+        orderService.updateStatus(order.getId(), OrderStatus.IN_PROGRESS);
+
+        CompletableFuture<List<ServerSentEvent<OrderDto>>> ready = WebClient.create("http://localhost:" + server.getPort())
+                .get().uri("/api/orders/stream?status=READY")
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<OrderDto>>() { })
+                .filter(event -> event.data() != null)
+                .take(2)
+                .collectList()
+                .toFuture();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (orderStream.getSubscriberCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Un cambio hecho por el stack servlet llega también al stream reactivo; el pedido nuevo no es READY
+        orderService.createOrder(order("Eva"));
+        orderService.updateStatus(order.getId(), OrderStatus.READY);
+        // Sale de READY: la pantalla de retiro también tiene que enterarse
+        orderService.updateStatus(order.getId(), OrderStatus.DELIVERED);
+
+        List<ServerSentEvent<OrderDto>> events = ready.get(5, TimeUnit.SECONDS);
+        assertEquals("order-status-changed", events.get(0).event());
+        assertEquals(order.getId(), events.get(0).data().getId());
+        assertEquals(OrderStatus.READY, events.get(0).data().getStatus());
+        assertEquals(order.getId(), events.get(1).data().getId());
+        assertEquals(OrderStatus.DELIVERED, events.get(1).data().getStatus());
+    }
+
+    private WebTestClient.ResponseSpec create(String customerName, String idempotencyKey) {
+        WebTestClient.RequestBodySpec request = client.post().uri("/api/orders");
+        if (idempotencyKey != null) {
+            request.header(IdempotentRequests.HEADER, idempotencyKey);
+        }
+        return request.bodyValue(order(customerName)).exchange();
+    }
+
+    private static OrderDto order(String customerName) {
+        OrderDto dto = new OrderDto();
+        dto.setCustomerName(customerName);
+        dto.setDrink("latte");
+        dto.setQuantity(1);
+        return dto;
+    }
+}
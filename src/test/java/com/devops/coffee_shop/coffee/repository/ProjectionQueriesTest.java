@@ -0,0 +1,102 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.Client;
+import com.devops.coffee_shop.coffee.domain.Order;
+import com.devops.coffee_shop.coffee.domain.Product;
+import com.devops.coffee_shop.coffee.domain.ProductCategory;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.dto.ProductDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las consultas con proyección (SELECT new ...) de los repositories devuelven lo mismo que leer las entidades
+ * administradas y convertirlas a DTO. La memoria reservada por cada camino se mide en ProjectionBenchmark (JMH).
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:projections;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProjectionQueriesTest {
+
+    private static final int ROWS = 1000;
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void populate() {
+        for (int i = 0; i < ROWS; i++) {
+            entityManager.persist(new Order("Cliente " + i, "Latte", 1 + i % 3));
+            entityManager.persist(new Product("Producto " + i, "Descripción " + i, new BigDecimal("3.50"), ProductCategory.COFFEE));
+            entityManager.persist(new Client("Nombre" + i, "Apellido" + i, new Date(), String.format("%08d", i)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void orderProjectionMatchesEntities() {
+        assertSameRows(orderRepository.findAll(BY_ID).stream().map(ProjectionQueriesTest::toDto).toList(),
+                orderRepository.findAllDtos(),
+                o -> Arrays.asList(o.getId(), o.getCustomerName(), o.getDrink(), o.getQuantity(), o.getStatus(), o.getCreatedAt()));
+    }
+
+    @Test
+    void productProjectionMatchesEntities() {
+        assertSameRows(productRepository.findAll(BY_ID).stream().map(ProjectionQueriesTest::toDto).toList(),
+                productRepository.findAllDtos(),
+                p -> Arrays.asList(p.getId(), p.getName(), p.getDescription(), p.getPrice(), p.getCategory(),
+                        p.isAvailable(), p.getCreatedAt(), p.getUpdatedAt()));
+    }
+
+    @Test
+    void clientProjectionMatchesEntities() {
+        assertSameRows(clientRepository.findAll(BY_ID).stream().map(ProjectionQueriesTest::toDto).toList(),
+                clientRepository.findAllDtos(),
+                c -> Arrays.asList(c.getId(), c.getFirstName(), c.getLastName(), c.getBirthDate(), c.isActive(),
+                        c.getCreatedAt(), c.getUpdatedAt()));
+    }
+
+    private static <T> void assertSameRows(List<T> fromEntities, List<T> projected, Function<T, List<Object>> columns) {
+        assertEquals(ROWS, projected.size());
+        assertEquals(fromEntities.stream().map(columns).toList(), projected.stream().map(columns).toList());
+    }
+
+    private static OrderDto toDto(Order order) {
+        return new OrderDto(order.getId(), order.getCustomerName(), order.getDrink(), order.getQuantity(),
+                order.getStatus(), order.getCreatedAt());
+    }
+
+    private static ProductDto toDto(Product product) {
+        return new ProductDto(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getCategory(), product.isAvailable(), product.getCreatedAt(), product.getUpdatedAt());
+    }
+
+    private static ClientDto toDto(Client client) {
+        return new ClientDto(client.getId(), client.getFirstName(), client.getLastName(), client.getBirthDate(),
+                client.isActive(), client.getCreatedAt(), client.getUpdatedAt());
+    }
+}
@@ -0,0 +1,83 @@
+package com.devops.coffee_shop.coffee.repository;
+
+import com.devops.coffee_shop.coffee.domain.Client;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Lecturas de clientes servidas por la caché de segundo nivel y la de consultas.
+ * Cada operación confirma su propia transacción, como en la aplicación: la caché se llena al hacer commit.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> clientRepository.deleteAllInBatch());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void clientByIdIsReadOnceAndThenServedFromCache() {
+        Long id = save("Ana", "Paz", "12345678");
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        transaction.execute(status -> clientRepository.findById(id));
+        transaction.execute(status -> clientRepository.findById(id));
+        transaction.execute(status -> clientRepository.findById(id));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(Client.class.getName()).getHitCount());
+    }
+
+    @Test
+    void activeClientsQueryIsCachedUntilClientsChange() {
+        save("Ana", "Paz", "12345678");
+
+        assertEquals(1, transaction.execute(status -> clientRepository.findByActiveTrue()).size());
+        assertEquals(1, transaction.execute(status -> clientRepository.findByActiveTrue()).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        // Una escritura en clients invalida el resultado guardado
+        save("Beto", "Sol", "87654321");
+        assertEquals(2, transaction.execute(status -> clientRepository.findByActiveTrue()).size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    private Long save(String firstName, String lastName, String documentNumber) {
+        return transaction.execute(status ->
+                clientRepository.save(new Client(firstName, lastName, new Date(), documentNumber)).getId());
+    }
+}
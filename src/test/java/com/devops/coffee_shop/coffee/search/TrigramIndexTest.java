@@ -0,0 +1,55 @@
+package com.devops.coffee_shop.coffee.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    @Test
+    void ranksExactThenPrefixThenWordThenSubstring() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Iced Latte");
+        index.put(2L, "Latte");
+        index.put(3L, "Lattesco");
+        index.put(4L, "Chocolatte");
+        index.put(5L, "Espresso");
+
+        assertEquals(List.of(2L, 3L, 1L, 4L), index.search("latte"));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Café con leche");
+
+        assertEquals(List.of(1L), index.search("CAFE"));
+        assertEquals(List.of(1L), index.search("cón"));
+    }
+
+    @Test
+    void shortQueriesScanAllTexts() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Mocha");
+        index.put(2L, "Tea");
+
+        assertEquals(List.of(1L), index.search("mo"));
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflected() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Cappuccino");
+        index.put(1L, "Flat White");
+
+        assertTrue(index.search("capp").isEmpty());
+        assertEquals(List.of(1L), index.search("white"));
+
+        index.remove(1L);
+        assertTrue(index.search("white").isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.devops.coffee_shop.coffee.service;
+
+import com.devops.coffee_shop.coffee.domain.Client;
+import com.devops.coffee_shop.coffee.dto.ClientDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * ClientService contra la base real: columnas derivadas y restricciones de unicidad
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:clientservice;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ClientService.class)
+class ClientServiceTest {
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void backfillFillsDerivedKeysWithoutTouchingUpdatedAt() {
+        Client client = new Client("José", "Gómez", new Date(), "30111222");
+        entityManager.persist(client);
+        entityManager.flush();
+        // Cliente de antes de las columnas derivadas, modificado por última vez hace un año
+        LocalDateTime lastEdit = LocalDateTime.of(2025, 3, 1, 9, 30);
+        entityManager.createNativeQuery("UPDATE clients SET first_name_lower = NULL, last_name_lower = NULL, "
+                        + "search_key = NULL, reverse_search_key = NULL, updated_at = ?1 WHERE id = ?2")
+                .setParameter(1, lastEdit)
+                .setParameter(2, client.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        clientService.backfillDerivedKeys();
+        entityManager.flush();
+        entityManager.clear();
+
+        Client backfilled = entityManager.find(Client.class, client.getId());
+        assertEquals("josé", backfilled.getFirstNameLower());
+        assertEquals("gómez", backfilled.getLastNameLower());
+        assertEquals("jose gomez", backfilled.getSearchKey());
+        assertEquals("gomez jose", backfilled.getReverseSearchKey());
+        assertEquals(lastEdit, backfilled.getUpdatedAt());
+    }
+
+    @Test
+    void createWithDuplicateDocumentIsRejected() {
+        clientService.createClient(client("Ana", "Paz", "20111222"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> clientService.createClient(client("Bruno", "Sosa", "20111222")));
+        assertEquals("Ya existe un cliente con el documento: 20111222", e.getMessage());
+    }
+
+    @Test
+    void createWithSameNameInOtherCaseIsRejected() {
+        clientService.createClient(client("Ana", "Paz", "20111222"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> clientService.createClient(client("ANA", "paz", "20333444")));
+        assertEquals("Ya existe un cliente con el nombre y apellido: ANA paz", e.getMessage());
+    }
+
+    @Test
+    void updateToAnotherClientsDocumentIsRejected() {
+        clientService.createClient(client("Ana", "Paz", "20111222"));
+        ClientDto other = clientService.createClient(client("Bruno", "Sosa", "20333444"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> clientService.updateClient(other.getId(), client("Bruno", "Sosa", "20111222")));
+        assertEquals("Ya existe un cliente con el documento: 20111222", e.getMessage());
+    }
+
+    @Test
+    void updateToAnotherClientsNameInOtherCaseIsRejected() {
+        clientService.createClient(client("Ana", "Paz", "20111222"));
+        ClientDto other = clientService.createClient(client("Bruno", "Sosa", "20333444"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> clientService.updateClient(other.getId(), client("ana", "PAZ", "20333444")));
+        assertEquals("Ya existe un cliente con el nombre y apellido: ana PAZ", e.getMessage());
+    }
+
+    @Test
+    void updateKeepingItsOwnDocumentAndNameIsAllowed() {
+        ClientDto ana = clientService.createClient(client("Ana", "Paz", "20111222"));
+
+        ClientDto updated = clientService.updateClient(ana.getId(), client("ANA", "Paz", "20111222"));
+
+        assertEquals("ANA", updated.getFirstName());
+    }
+
+    private static ClientDto client(String firstName, String lastName, String documentNumber) {
+        ClientDto dto = new ClientDto();
+        dto.setFirstName(firstName);
+        dto.setLastName(lastName);
+        dto.setBirthDate(new Date());
+        dto.setDocumentNumber(documentNumber);
+        dto.setActive(true);
+        return dto;
+    }
+}
@@ -0,0 +1,97 @@
+package com.devops.coffee_shop.coffee.stream;
+
+import com.devops.coffee_shop.coffee.domain.OrderStatus;
+import com.devops.coffee_shop.coffee.dto.OrderDto;
+import com.devops.coffee_shop.coffee.events.OrderEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Suscriptores lentos con el pool de envío ocupado: los eventos se acumulan en su buffer hasta desconectarlos
+ */
+class OrderEventBroadcasterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService senders = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OrderEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void blockSenders() {
+        senders.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        broadcaster = new OrderEventBroadcaster(registry, 2, Duration.ofMinutes(30), Duration.ofHours(1), senders);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void subscribersAreCountedInTheGauge() {
+        broadcaster.subscribe(null);
+        broadcaster.subscribe(List.of(OrderStatus.READY));
+
+        assertEquals(2, subscribers());
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWhenItsBufferIsFull() {
+        broadcaster.subscribe(null);
+
+        broadcaster.onOrderEvent(OrderEvent.created(order(1, OrderStatus.NEW)));
+        broadcaster.onOrderEvent(OrderEvent.created(order(2, OrderStatus.NEW)));
+        assertEquals(1, subscribers());
+
+        broadcaster.onOrderEvent(OrderEvent.created(order(3, OrderStatus.NEW)));
+        assertEquals(0, subscribers());
+        assertEquals(1, dropped());
+    }
+
+    // Un suscriptor a READY solo acumula los eventos que entran o salen de READY
+    @Test
+    void filteredSubscriberOnlyBuffersMatchingEvents() {
+        broadcaster.subscribe(List.of(OrderStatus.READY));
+
+        broadcaster.onOrderEvent(OrderEvent.created(order(1, OrderStatus.NEW)));
+        broadcaster.onOrderEvent(OrderEvent.statusChanged(order(1, OrderStatus.IN_PROGRESS), OrderStatus.NEW));
+        broadcaster.onOrderEvent(OrderEvent.statusChanged(order(2, OrderStatus.CANCELED), OrderStatus.IN_PROGRESS));
+        broadcaster.onOrderEvent(OrderEvent.statusChanged(order(1, OrderStatus.READY), OrderStatus.IN_PROGRESS));
+        broadcaster.onOrderEvent(OrderEvent.statusChanged(order(1, OrderStatus.DELIVERED), OrderStatus.READY));
+        assertEquals(1, subscribers());
+
+        broadcaster.onOrderEvent(OrderEvent.statusChanged(order(3, OrderStatus.CANCELED), OrderStatus.READY));
+        assertEquals(0, subscribers());
+        assertEquals(1, dropped());
+    }
+
+    private double subscribers() {
+        return registry.get("coffee_order_stream_subscribers").gauge().value();
+    }
+
+    private double dropped() {
+        return registry.get("coffee_order_stream_dropped_subscribers_total").counter().count();
+    }
+
+    private static OrderDto order(long id, OrderStatus status) {
+        return new OrderDto(id, "Ana", "latte", 1, status, LocalDateTime.now());
+    }
+}
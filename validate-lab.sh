@@ -136,15 +136,32 @@ else
     FAILED_TESTS=$((FAILED_TESTS + 1))
 fi
 
-# Test PATCH endpoint
+# Test PATCH endpoint: el pedido avanza NEW -> IN_PROGRESS -> READY -> DELIVERED, sin saltear estados
+order_id=$(echo "$response" | grep -o '"id":[0-9]*' | head -1 | cut -d: -f2)
+order_id=${order_id:-1}
 TOTAL_TESTS=$((TOTAL_TESTS + 1))
-echo -n "Testing: PATCH /api/orders/{id}/status/{status} - Update order status... "
-status_code=$(curl -s -o /dev/null -w "%{http_code}" -X PATCH http://localhost:8080/api/orders/1/status/DELIVERED)
-if [ "$status_code" = "200" ]; then
+echo -n "Testing: PATCH /api/orders/{id}/status/{status} - Walk order status to DELIVERED... "
+status_codes=""
+for status in IN_PROGRESS READY DELIVERED; do
+    status_codes="$status_codes $(curl -s -o /dev/null -w "%{http_code}" -X PATCH http://localhost:8080/api/orders/$order_id/status/$status)"
+done
+if [ "$status_codes" = " 200 200 200" ]; then
+    echo -e "${GREEN}✅ PASS${NC} (Status:$status_codes)"
+    PASSED_TESTS=$((PASSED_TESTS + 1))
+else
+    echo -e "${RED}❌ FAIL${NC} (Expected: 200 200 200, Got:$status_codes)"
+    FAILED_TESTS=$((FAILED_TESTS + 1))
+fi
+
+# Una transición no permitida (DELIVERED -> IN_PROGRESS) responde 409
+TOTAL_TESTS=$((TOTAL_TESTS + 1))
+echo -n "Testing: PATCH /api/orders/{id}/status/{status} - Invalid transition... "
+status_code=$(curl -s -o /dev/null -w "%{http_code}" -X PATCH http://localhost:8080/api/orders/$order_id/status/IN_PROGRESS)
+if [ "$status_code" = "409" ]; then
     echo -e "${GREEN}✅ PASS${NC} (Status: $status_code)"
     PASSED_TESTS=$((PASSED_TESTS + 1))
 else
-    echo -e "${RED}❌ FAIL${NC} (Expected: 200, Got: $status_code)"
+    echo -e "${RED}❌ FAIL${NC} (Expected: 409, Got: $status_code)"
     FAILED_TESTS=$((FAILED_TESTS + 1))
 fi
 